@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmark;
+
+import java.io.Serializable;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.context.StepContext;
+
+//This class is the StepContext of the artifacts run by the benchmarks. It only keeps the user data
+class BenchmarkStepContext implements StepContext {
+
+    private Object transientUserData;
+
+    private Serializable persistentUserData;
+
+    private String exitStatus;
+
+    @Override
+    public String getStepName() {
+        return "benchmark";
+    }
+
+    @Override
+    public Object getTransientUserData() {
+        return transientUserData;
+    }
+
+    @Override
+    public void setTransientUserData(Object data) {
+        transientUserData = data;
+    }
+
+    @Override
+    public long getStepExecutionId() {
+        return 1;
+    }
+
+    @Override
+    public Properties getProperties() {
+        return new Properties();
+    }
+
+    @Override
+    public Serializable getPersistentUserData() {
+        return persistentUserData;
+    }
+
+    @Override
+    public void setPersistentUserData(Serializable data) {
+        persistentUserData = data;
+    }
+
+    @Override
+    public BatchStatus getBatchStatus() {
+        return BatchStatus.STARTED;
+    }
+
+    @Override
+    public String getExitStatus() {
+        return exitStatus;
+    }
+
+    @Override
+    public void setExitStatus(String status) {
+        exitStatus = status;
+    }
+
+    @Override
+    public Exception getException() {
+        return null;
+    }
+
+    @Override
+    public Metric[] getMetrics() {
+        return new Metric[0];
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.as.quickstarts.batch.job.ContactsFormatter;
+import org.jboss.as.quickstarts.batch.job.FastContactsFormatter;
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link ContactsFormatter#processItem(Object)}, which formats the phone number with a regular expression and logs
+ * every contact, with {@link FastContactsFormatter#processItem(Object)}. The logger of {@code ContactsFormatter} discards
+ * the messages, so only the cost of building them is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactsFormatterBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    private String[] names;
+
+    private String[] phones;
+
+    private ContactsFormatter contactsFormatter;
+
+    private FastContactsFormatter fastContactsFormatter;
+
+    @Setup
+    public void setup() {
+        // The same names and phones BatchController generates, with a fixed seed
+        Random random = new Random(42);
+        names = new String[RECORDS];
+        phones = new String[RECORDS];
+        for (int x = 0; x < RECORDS; x++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+            StringBuilder phone = new StringBuilder();
+            for (int i = 0; i < 9; i++) {
+                phone.append((char) ('0' + random.nextInt(10)));
+            }
+            names[x] = name.toString();
+            phones[x] = phone.toString();
+        }
+        Logger log = Logger.getLogger(ContactsFormatterBenchmark.class.getName());
+        log.setLevel(Level.OFF);
+        contactsFormatter = Injection.inject(new ContactsFormatter(), "log", log);
+        fastContactsFormatter = new FastContactsFormatter();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void contactsFormatter(Blackhole blackhole) throws Exception {
+        for (int x = 0; x < RECORDS; x++) {
+            blackhole.consume(contactsFormatter.processItem(contact(x)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void fastContactsFormatter(Blackhole blackhole) throws Exception {
+        for (int x = 0; x < RECORDS; x++) {
+            blackhole.consume(fastContactsFormatter.processItem(contact(x)));
+        }
+    }
+
+    // The formatters update the contact, so each call gets a new one
+    private Contact contact(int x) {
+        Contact contact = new Contact();
+        contact.setId(x + 1);
+        contact.setName(names[x]);
+        contact.setPhone(phones[x]);
+        return contact;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmark;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jboss.as.quickstarts.batch.job.ContactsPersister;
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to write a chunk of contacts to an in-memory H2 database, with the same table as the quickstart. Each
+ * write mode of {@link ContactsPersister#writeItems(List)} is measured: {@code persist} and {@code jpa-batch} through a
+ * resource local Hibernate entity manager (see META-INF/persistence.xml), committed after each chunk like the chunk
+ * transaction, and {@code jdbc-batch} through the connection pool. The table is emptied before each iteration
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactsPersisterBenchmark {
+
+    private static final String CREATE_CONTACT = "CREATE TABLE Contact (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE, "
+        + "phone VARCHAR(255) NOT NULL, contentHash BIGINT)";
+
+    // Number of contacts in a chunk
+    @Param({ "10", "100", "1000" })
+    private int chunkSize;
+
+    @Param({ "persist", "jpa-batch", "jdbc-batch" })
+    private String writeMode;
+
+    private JdbcConnectionPool dataSource;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private EntityManager entityManager;
+
+    private ContactsPersister persister;
+
+    private int nextId;
+
+    @Setup
+    public void setup() throws Exception {
+        dataSource = JdbcConnectionPool.create("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1", "sa", "sa");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS Contact");
+            statement.execute(CREATE_CONTACT);
+        }
+        entityManagerFactory = Persistence.createEntityManagerFactory("benchmark");
+        entityManager = entityManagerFactory.createEntityManager();
+        Logger log = Logger.getLogger(ContactsPersisterBenchmark.class.getName());
+        log.setLevel(java.util.logging.Level.OFF);
+        persister = new ContactsPersister();
+        Injection.inject(persister, "entityManager", entityManager);
+        Injection.inject(persister, "dataSource", dataSource);
+        Injection.inject(persister, "log", log);
+        Injection.inject(persister, "stepContext", new BenchmarkStepContext());
+        Injection.inject(persister, "cleanDatabase", "false");
+        Injection.inject(persister, "writeMode", writeMode);
+        persister.open(null);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM Contact");
+        }
+        entityManager.clear();
+        nextId = 0;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        persister.close();
+        entityManager.close();
+        entityManagerFactory.close();
+        dataSource.dispose();
+    }
+
+    @Benchmark
+    public void writeItems() throws Exception {
+        entityManager.getTransaction().begin();
+        try {
+            persister.writeItems(chunk());
+            entityManager.getTransaction().commit();
+        } finally {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+            // Like the chunk transaction, the persisted contacts don't outlive the chunk
+            entityManager.clear();
+        }
+    }
+
+    // New contacts, as the names are unique
+    private List<Object> chunk() {
+        List<Object> items = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            int id = ++nextId;
+            Contact contact = new Contact();
+            contact.setId(id);
+            contact.setName("Contact" + id);
+            contact.setPhone("(978)-913-851");
+            items.add(contact);
+        }
+        return items;
+    }
+
+}
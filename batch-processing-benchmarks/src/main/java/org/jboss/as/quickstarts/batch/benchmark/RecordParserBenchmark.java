@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.quickstarts.batch.job.RecordParser;
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the original {@code String.split} parsing of a record with the delimiter scanning {@link RecordParser}. Run
+ * with {@code -prof gc} to see the bytes allocated per record ({@code gc.alloc.rate.norm})
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordParserBenchmark {
+
+    private static final int RECORDS = 1024;
+
+    private static final String SEPARATOR_REGEX = "[|]";
+
+    private byte[][] lines;
+
+    private RecordParser parser;
+
+    @Setup
+    public void setup() {
+        // The same records BatchController generates, with a fixed seed
+        Random random = new Random(42);
+        lines = new byte[RECORDS][];
+        for (int x = 0; x < RECORDS; x++) {
+            StringBuilder record = new StringBuilder().append(x + 1).append('|');
+            for (int i = 0; i < 10; i++) {
+                record.append((char) ('a' + random.nextInt(26)));
+            }
+            record.append('|');
+            for (int i = 0; i < 9; i++) {
+                record.append((char) ('0' + random.nextInt(10)));
+            }
+            lines[x] = record.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        parser = new RecordParser(SEPARATOR_REGEX);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void split(Blackhole blackhole) {
+        for (byte[] line : lines) {
+            String[] fields = new String(line, StandardCharsets.UTF_8).split(SEPARATOR_REGEX);
+            Contact contact = new Contact();
+            contact.setId(Integer.parseInt(fields[0]));
+            contact.setName(fields[1]);
+            contact.setPhone(fields[2]);
+            blackhole.consume(contact);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void delimiterScan(Blackhole blackhole) {
+        for (byte[] line : lines) {
+            blackhole.consume(parser.parse(line, line.length));
+        }
+    }
+
+}
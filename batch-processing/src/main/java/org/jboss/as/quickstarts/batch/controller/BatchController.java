@@ -16,25 +16,15 @@
  */
 package org.jboss.as.quickstarts.batch.controller;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.logging.Logger;
 
 import javax.batch.operations.JobOperator;
-import javax.batch.operations.NoSuchJobException;
 import javax.batch.runtime.BatchRuntime;
-import javax.batch.runtime.JobExecution;
-import javax.batch.runtime.JobInstance;
 import javax.enterprise.inject.Model;
 import javax.faces.application.FacesMessage;
 import javax.faces.context.FacesContext;
@@ -42,6 +32,8 @@ import javax.inject.Inject;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 
+import org.jboss.as.quickstarts.batch.generator.RecordsGenerator;
+
 //The @Model stereotype is a convenience mechanism to make this a request-scoped bean that has an
 //EL name
 //Read more about the @Model stereotype in this FAQ:
@@ -49,105 +41,177 @@ import javax.validation.constraints.Min;
 @Model
 public class BatchController {
 
+    private static final int PAGE_SIZE = 20;
+
     @Inject
     private FacesContext facesContext;
 
     @Inject
     private Logger log;
 
+    @Inject
+    private RecordsGenerator generator;
+
+    @Inject
+    private JobHistory jobHistory;
+
+    @Inject
+    private JobHistoryPager pager;
+
     private String fileName = "temp-file.txt";
 
     private boolean generateWithError;
 
+    private boolean adaptiveChunks;
+
+    private boolean pipelined;
+
     @Min(0)
-    @Max(1000000)
+    @Max(1000000000)
     private Integer numRecords = 10;
 
+    // Seed of the generated file. A random one is used when empty
+    private Long seed;
+
+    @Min(1)
+    @Max(64)
+    private Integer partitions = 1;
+
+    // One of persist, jpa-batch or jdbc-batch. See ContactsPersister
+    private String writeMode = "persist";
+
+    // contactFormatter or fastContactFormatter
+    private String processor = "contactFormatter";
+
+    // replace, incremental or staging. See ContactsPersister
+    private String importMode = "replace";
+
+    private boolean deleteMissing;
+
+    private boolean quarantineDuplicates;
+
+    // Directory imported by the import-directory job, relative to the temporary directory
+    private String directory = "batch-import";
+
+    // Glob of the files to import from the directory
+    private String filePattern = "*.txt";
+
+    // Import mode of the import-directory job. Every scan of the directory would delete all contacts in replace mode
+    private String directoryImportMode = "incremental";
+
+    // Written to the temporary directory by the export-contacts job. Compressed when it ends with .gz
+    private String exportFileName = "contacts-export.txt";
+
+    // Page of the List of Jobs table, loaded for the page of the pager
+    private JobHistoryPage jobsPage;
+
     public void generate() throws IOException {
-        File tempFile = new File(System.getProperty("java.io.tmpdir"), fileName);
-        try (BufferedWriter bos = new BufferedWriter(new FileWriter(tempFile, false))) {
-            log.info("Starting to generate " + numRecords + " records in file " + tempFile);
-            String previousName = null;
-            final Random random = new Random();
-            for (int x = 0; x < numRecords; x++) {
-                // generate random name
-                String name = random.ints('a','z'+1)
-                        .limit(10)
-                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append)
-                        .toString();
-                // generate random phone number
-                String phone = random.ints('0','9'+1)
-                        .limit(9)
-                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append)
-                        .toString();
-                // Generate a duplicate name;
-                if (generateWithError && x == (numRecords / 2)) {
-                    name = previousName;
-                }
-                String record = (x + 1) + "|" + name + "|" + phone;
-                bos.write(record + "\n");
-                previousName = name;
-            }
-            log.info("File generated at " + tempFile);
-            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
-                "File generated with " + numRecords + " records to be imported. File name: " + getFileName(), null));
-            if (generateWithError) {
-                facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "Attention: This file contains duplicate records for test purpose.", null));
-            }
-        }
+        generate(null);
     }
 
     public void generateFileAndStarJob() throws IOException {
-        generate();
-        startImport();
+        // The job is started by the generator thread once the file is complete, so prepare it while in the request
+        final String jobName = getJobName();
+        final Properties jobParameters = getJobParameters();
+        generate(() -> {
+            long execID = BatchRuntime.getJobOperator().start(jobName, jobParameters);
+            log.info("New job execution #" + execID + " running. Importing file:" + jobParameters.getProperty("fileName"));
+        });
+    }
+
+    private void generate(Runnable onSuccess) throws IOException {
+        File tempFile = new File(System.getProperty("java.io.tmpdir"), fileName);
+        long fileSeed = seed != null ? seed : new Random().nextLong();
+        if (!generator.start(tempFile, numRecords, generateWithError, fileSeed, onSuccess)) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, "Another file is being generated. Please wait until it completes.", null));
+            return;
+        }
+        facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
+            "Generating file with " + numRecords + " records to be imported (seed " + fileSeed + "). File name: " + getFileName(), null));
+        if (onSuccess != null) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "The import will start once the file is generated.", null));
+        }
+        if (generateWithError) {
+            facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR, "Attention: This file contains duplicate records for test purpose.", null));
+        }
     }
 
     public void startImport() {
         JobOperator jobOperator = BatchRuntime.getJobOperator();
-        Properties jobParameters = new Properties();
-        jobParameters.setProperty("fileName", getFileName());
-        long execID = jobOperator.start("import-file", jobParameters);
+        long execID = jobOperator.start(getJobName(), getJobParameters());
         facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "New job execution #" + execID + " running. Importing file:" + getFileName(), null));
     }
 
-    public Set<JobData> getJobsExecution() {
-        Set<JobData> jobsData = new TreeSet<JobData>(new Comparator<JobData>() {
+    public void startDirectoryImport() {
+        JobOperator jobOperator = BatchRuntime.getJobOperator();
+        Properties jobParameters = getJobParameters();
+        jobParameters.remove("fileName");
+        jobParameters.setProperty("directory", getDirectory());
+        jobParameters.setProperty("filePattern", getFilePattern());
+        jobParameters.setProperty("importMode", getDirectoryImportMode());
+        long execID = jobOperator.start("import-directory", jobParameters);
+        facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "New job execution #" + execID + " running. Importing the files " + getFilePattern() + " of directory:" + getDirectory(), null));
+    }
 
-            @Override
-            public int compare(JobData o1, JobData o2) {
-                return o2.getJobInstanceId().compareTo(o1.getJobInstanceId());
-            }
-        });
-        Map<Long, JobExecution> jobIntances = new HashMap<>();
+    public void startExport() {
         JobOperator jobOperator = BatchRuntime.getJobOperator();
-        try {
-            List<JobInstance> instances = jobOperator.getJobInstances("import-file", 0, jobOperator.getJobInstanceCount("import-file"));
-            for (JobInstance ji : instances) {
-                List<JobExecution> executions = jobOperator.getJobExecutions(ji);
-                for (JobExecution jobExecution : executions) {
-                    // initialize the map if null
-                    if (jobIntances.get(ji.getInstanceId()) == null) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
-                    }
-                    // Update the jobExecution if is newer
-                    JobExecution existing = jobIntances.get(ji.getInstanceId());
-                    if (jobExecution.getExecutionId() > existing.getExecutionId()) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
-                    }
-                }
-            }
-            for (Long instaceId : jobIntances.keySet()) {
-                JobExecution jobExecution = jobIntances.get(instaceId);
-                JobInstance ji = jobOperator.getJobInstance(jobExecution.getExecutionId());
-                Properties parameters = jobOperator.getParameters(jobExecution.getExecutionId());
-                jobsData.add(new JobData(ji.getInstanceId(), jobExecution.getExecutionId(), ji.getJobName(), jobExecution.getCreateTime(), jobExecution.getEndTime(), jobExecution
-                    .getBatchStatus(), parameters, jobExecution.getExitStatus()));
-            }
-        } catch (NoSuchJobException e) {
-            // It's ok if when doesn't have any jobs yet to show
+        Properties jobParameters = new Properties();
+        jobParameters.setProperty("fileName", getExportFileName());
+        long execID = jobOperator.start("export-contacts", jobParameters);
+        facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "New job execution #" + execID + " running. Exporting contacts to file:" + getExportFileName(), null));
+    }
+
+    // More than one partition imports the file in parallel slices
+    private String getJobName() {
+        return partitions > 1 ? "import-file-partitioned" : "import-file";
+    }
+
+    private Properties getJobParameters() {
+        Properties jobParameters = new Properties();
+        jobParameters.setProperty("fileName", getFileName());
+        jobParameters.setProperty("writeMode", getWriteMode());
+        jobParameters.setProperty("processor", getProcessor());
+        jobParameters.setProperty("importMode", getImportMode());
+        jobParameters.setProperty("deleteMissing", String.valueOf(deleteMissing));
+        jobParameters.setProperty("quarantineDuplicates", String.valueOf(quarantineDuplicates));
+        if (pipelined) {
+            jobParameters.setProperty("reader", "pipelinedRecordsReader");
         }
+        if (adaptiveChunks) {
+            jobParameters.setProperty("checkpointPolicy", "custom");
+        }
+        if (partitions > 1) {
+            jobParameters.setProperty("partitions", partitions.toString());
+        }
+        return jobParameters;
+    }
+
+    public boolean isGenerating() {
+        return generator.isRunning();
+    }
+
+    public String getGenerationProgress() {
+        return generator.getProgress();
+    }
+
+    public List<JobData> getJobsExecution() {
+        return getJobsPage().getJobs();
+    }
+
+    public JobHistoryPage getJobsPage() {
+        // The page is used several times while rendering, so keep it for the request
+        if (jobsPage == null) {
+            jobsPage = jobHistory.getPage(pager.getPage(), PAGE_SIZE);
+        }
+        return jobsPage;
+    }
+
+    public void previousPage() {
+        setPage(Math.max(0, getPage() - 1));
+    }
 
-        return jobsData;
+    public void nextPage() {
+        setPage(getPage() + 1);
     }
 
     public void restartJob(int executionId) {
@@ -155,6 +219,8 @@ public class BatchController {
         Properties jobParameters = jobOperator.getParameters(executionId);
         jobParameters.setProperty("restartedOnce", "true");
         long newExecutionId = jobOperator.restart(executionId, jobParameters);
+        jobHistory.invalidate();
+        jobsPage = null;
         facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_WARN, "Execution " + executionId + " restarted! New execution id: " + newExecutionId, null));
     }
 
@@ -166,6 +232,104 @@ public class BatchController {
         this.numRecords = numRecords;
     }
 
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getFilePattern() {
+        return filePattern;
+    }
+
+    public void setFilePattern(String filePattern) {
+        this.filePattern = filePattern;
+    }
+
+    public String getDirectoryImportMode() {
+        return directoryImportMode;
+    }
+
+    public void setDirectoryImportMode(String directoryImportMode) {
+        this.directoryImportMode = directoryImportMode;
+    }
+
+    public String getExportFileName() {
+        return exportFileName;
+    }
+
+    public void setExportFileName(String exportFileName) {
+        this.exportFileName = exportFileName;
+    }
+
+    public int getPage() {
+        return pager.getPage();
+    }
+
+    // Drops the jobs loaded for the previous page, which would be rendered otherwise
+    public void setPage(int page) {
+        pager.setPage(page);
+        jobsPage = null;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    public Integer getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(Integer partitions) {
+        this.partitions = partitions;
+    }
+
+    public String getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(String writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public String getProcessor() {
+        return processor;
+    }
+
+    public void setProcessor(String processor) {
+        this.processor = processor;
+    }
+
+    public String getImportMode() {
+        return importMode;
+    }
+
+    public void setImportMode(String importMode) {
+        this.importMode = importMode;
+    }
+
+    public boolean isDeleteMissing() {
+        return deleteMissing;
+    }
+
+    public void setDeleteMissing(boolean deleteMissing) {
+        this.deleteMissing = deleteMissing;
+    }
+
+    public boolean isQuarantineDuplicates() {
+        return quarantineDuplicates;
+    }
+
+    public void setQuarantineDuplicates(boolean quarantineDuplicates) {
+        this.quarantineDuplicates = quarantineDuplicates;
+    }
+
     public boolean isGenerateWithError() {
         return generateWithError;
     }
@@ -174,6 +338,22 @@ public class BatchController {
         this.generateWithError = generateWithError;
     }
 
+    public boolean isAdaptiveChunks() {
+        return adaptiveChunks;
+    }
+
+    public void setAdaptiveChunks(boolean adaptiveChunks) {
+        this.adaptiveChunks = adaptiveChunks;
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
     public String getFileName() {
         return fileName;
     }
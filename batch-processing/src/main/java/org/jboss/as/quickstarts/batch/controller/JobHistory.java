@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.NoSuchJobException;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Pages over the job instances of the import and export jobs, most recent first, showing the latest execution of each instance. Only the
+ * job instances up to the requested page are fetched from the job repository, and only the executions of the instances in the
+ * page are looked up, so the cost of a page doesn't grow with the job history.
+ * <p>
+ * The most recently used pages are cached until {@link #invalidate()} is called by the {@code JobListener} when a job starts
+ * or ends. Pages with running executions are not cached, as their final status is stored after the listener is called. Pages
+ * are loaded outside of the lock, so a page loaded before an invalidation is not cached either.
+ * </p>
+ */
+@ApplicationScoped
+public class JobHistory {
+
+    static final String[] JOB_NAMES = { "import-file", "import-file-partitioned", "import-directory", "export-contacts" };
+
+    private static final int CACHED_PAGES = 8;
+
+    private final Map<String, JobHistoryPage> cache = new LinkedHashMap<String, JobHistoryPage>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JobHistoryPage> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    // Incremented by every invalidation, guarded by the cache
+    private long generation;
+
+    public JobHistoryPage getPage(int page, int size) {
+        String key = page + ":" + size;
+        long loadedGeneration;
+        synchronized (cache) {
+            JobHistoryPage cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadedGeneration = generation;
+        }
+        JobHistoryPage loaded = load(page, size);
+        if (!loaded.isRunning()) {
+            synchronized (cache) {
+                if (generation == loadedGeneration) {
+                    cache.put(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate() {
+        synchronized (cache) {
+            generation++;
+            cache.clear();
+        }
+    }
+
+    private JobHistoryPage load(int page, int size) {
+        JobOperator jobOperator = BatchRuntime.getJobOperator();
+        int first = page * size;
+        // Instances are returned most recent first, so the first instances of each job are enough to build the page
+        List<JobInstance> instances = new ArrayList<>();
+        long total = 0;
+        for (String jobName : JOB_NAMES) {
+            try {
+                int count = jobOperator.getJobInstanceCount(jobName);
+                total += count;
+                instances.addAll(jobOperator.getJobInstances(jobName, 0, Math.min(count, first + size)));
+            } catch (NoSuchJobException e) {
+                // It's ok if when doesn't have any jobs yet to show
+            }
+        }
+        Collections.sort(instances, new Comparator<JobInstance>() {
+
+            @Override
+            public int compare(JobInstance o1, JobInstance o2) {
+                return Long.compare(o2.getInstanceId(), o1.getInstanceId());
+            }
+        });
+        List<JobData> jobsData = new ArrayList<>();
+        for (JobInstance ji : instances.subList(Math.min(first, instances.size()), Math.min(first + size, instances.size()))) {
+            JobExecution latest = null;
+            for (JobExecution jobExecution : jobOperator.getJobExecutions(ji)) {
+                if (latest == null || jobExecution.getExecutionId() > latest.getExecutionId()) {
+                    latest = jobExecution;
+                }
+            }
+            if (latest == null) {
+                continue;
+            }
+            Properties parameters = jobOperator.getParameters(latest.getExecutionId());
+            jobsData.add(new JobData(ji.getInstanceId(), latest.getExecutionId(), ji.getJobName(), latest.getCreateTime(), latest.getEndTime(),
+                latest.getBatchStatus(), parameters, latest.getExitStatus()));
+        }
+        return new JobHistoryPage(jobsData, page, size, total);
+    }
+
+    static boolean isRunning(BatchStatus status) {
+        return status == BatchStatus.STARTING || status == BatchStatus.STARTED || status == BatchStatus.STOPPING;
+    }
+}
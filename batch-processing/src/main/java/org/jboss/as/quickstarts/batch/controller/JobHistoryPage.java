@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import java.util.List;
+
+//This class holds a page of the job history, see JobHistory
+public class JobHistoryPage {
+
+    private final List<JobData> jobs;
+
+    private final int page;
+
+    private final int size;
+
+    private final long total;
+
+    public JobHistoryPage(List<JobData> jobs, int page, int size, long total) {
+        this.jobs = jobs;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+    }
+
+    public List<JobData> getJobs() {
+        return jobs;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isHasPrevious() {
+        return page > 0;
+    }
+
+    public boolean isHasNext() {
+        return (long) (page + 1) * size < total;
+    }
+
+    boolean isRunning() {
+        for (JobData job : jobs) {
+            if (JobHistory.isRunning(job.getBatchStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import java.io.Serializable;
+
+import javax.faces.view.ViewScoped;
+import javax.validation.constraints.Min;
+
+//This class keeps the page of the List of Jobs table shown by the view. The BatchController is request-scoped, and the
+//paging buttons are only rendered, and so only decoded, when the page they lead to exists, so the page must be known before
+//the values of the request are applied
+@ViewScoped
+public class JobHistoryPager implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Min(0)
+    private int page;
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+}
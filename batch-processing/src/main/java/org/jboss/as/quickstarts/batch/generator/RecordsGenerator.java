@@ -0,0 +1,262 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * This class generates the files to be imported, off the request thread. Plain files are split in slices generated in parallel,
+ * each one with its own {@link SplittableRandom} derived from the seed, so the same seed always generates the same file. Every
+ * record has a known size, so each slice writes at its own offset of the file. Files ending with {@code .gz} are generated by
+ * a single slice through a {@link GZIPOutputStream}
+ *
+ */
+@ApplicationScoped
+public class RecordsGenerator {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    // The slices only depend on the number of records, so the same seed generates the same file on any machine. The managed
+    // executor bounds how many of them run at once
+    private static final int RECORDS_PER_SLICE = 100000;
+
+    // Size of a record without the id: "|" + 10 letters + "|" + 9 digits + "\n"
+    private static final int RECORD_SIZE_WITHOUT_ID = 22;
+
+    // Longest record: 10 digits for the id
+    private static final int MAX_RECORD_SIZE = RECORD_SIZE_WITHOUT_ID + 10;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    @Inject
+    private Logger log;
+
+    private final AtomicLong generated = new AtomicLong();
+
+    private volatile boolean running;
+
+    private volatile long total;
+
+    private volatile long startTime;
+
+    private volatile String lastResult = "";
+
+    /**
+     * Starts the generation of {@code numRecords} records. Returns false if another file is being generated. The
+     * {@code onSuccess} callback, when not null, runs on the generator thread once the file is complete
+     */
+    public synchronized boolean start(File file, int numRecords, boolean withError, long seed, Runnable onSuccess) throws IOException {
+        if (running) {
+            return false;
+        }
+        boolean compressed = file.getName().endsWith(".gz");
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        int slices = compressed ? 1 : Math.max(1, (numRecords + RECORDS_PER_SLICE - 1) / RECORDS_PER_SLICE);
+        // The duplicate name copies the previous record, so both must be in the same slice
+        long duplicate = withError ? numRecords / 2 : -1;
+
+        running = true;
+        total = numRecords;
+        generated.set(0);
+        startTime = System.nanoTime();
+        log.info("Starting to generate " + numRecords + " records in file " + file + " with seed " + seed + " in " + slices + " slices");
+
+        SplittableRandom root = new SplittableRandom(seed);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[slices];
+        long first = 0;
+        for (int i = 0; i < slices; i++) {
+            long last = (long) numRecords * (i + 1) / slices;
+            if (last == duplicate && i < slices - 1) {
+                last++;
+            }
+            long from = first;
+            long to = Math.max(first, last);
+            SplittableRandom random = root.split();
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    if (compressed) {
+                        writeCompressed(channel, random, from, to, duplicate);
+                    } else {
+                        writeSlice(channel, random, from, to, duplicate);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executorService);
+            first = to;
+        }
+        CompletableFuture.allOf(tasks).whenComplete((result, failure) -> {
+            Throwable error = failure;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                error = error == null ? e : error;
+            }
+            long elapsed = System.nanoTime() - startTime;
+            if (error == null) {
+                lastResult = String.format("Generated %d records in %s in %.1f s", numRecords, file, elapsed / 1e9);
+                log.info(lastResult);
+            } else {
+                lastResult = "Failed to generate " + file + ": " + error.getMessage();
+                log.severe(lastResult);
+            }
+            running = false;
+            if (error == null && onSuccess != null) {
+                onSuccess.run();
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Returns a short description of the running generation, or the result of the last one
+     */
+    public String getProgress() {
+        if (!running) {
+            return lastResult;
+        }
+        long count = generated.get();
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        return String.format("Generated %d of %d records (%.0f%%), %.0f records/s", count, total, total == 0 ? 100.0 : count * 100.0 / total,
+            seconds == 0 ? 0.0 : count / seconds);
+    }
+
+    private void writeSlice(FileChannel channel, SplittableRandom random, long first, long last, long duplicate) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = offsetOf(first);
+        RecordWriter writer = new RecordWriter(random, duplicate);
+        long pending = 0;
+        for (long x = first; x < last; x++) {
+            if (buffer.remaining() < MAX_RECORD_SIZE) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                buffer.clear();
+                generated.addAndGet(pending);
+                pending = 0;
+            }
+            writer.write(buffer, x, x > first);
+            pending++;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        generated.addAndGet(pending);
+    }
+
+    private void writeCompressed(FileChannel channel, SplittableRandom random, long first, long last, long duplicate) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        RecordWriter writer = new RecordWriter(random, duplicate);
+        try (WritableByteChannel out = Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))) {
+            long pending = 0;
+            for (long x = first; x < last; x++) {
+                if (buffer.remaining() < MAX_RECORD_SIZE) {
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                    generated.addAndGet(pending);
+                    pending = 0;
+                }
+                writer.write(buffer, x, x > first);
+                pending++;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            generated.addAndGet(pending);
+        }
+    }
+
+    // Offset of the record with the given index (the id minus 1). Records only differ by the number of digits of the id
+    static long offsetOf(long index) {
+        long offset = index * RECORD_SIZE_WITHOUT_ID;
+        // Add the digits of the ids 1..index
+        long lower = 1;
+        for (int digits = 1; lower <= index; digits++, lower *= 10) {
+            long upper = Math.min(index, lower * 10 - 1);
+            offset += (upper - lower + 1) * digits;
+        }
+        return offset;
+    }
+
+    // Writes "id|name|phone\n" records as ASCII bytes, without creating Strings
+    private static class RecordWriter {
+
+        private final SplittableRandom random;
+
+        private final long duplicate;
+
+        private final byte[] name = new byte[10];
+
+        private final byte[] id = new byte[20];
+
+        RecordWriter(SplittableRandom random, long duplicate) {
+            this.random = random;
+            this.duplicate = duplicate;
+        }
+
+        void write(ByteBuffer buffer, long index, boolean hasPrevious) {
+            long value = index + 1;
+            int start = id.length;
+            do {
+                id[--start] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            buffer.put(id, start, id.length - start).put((byte) '|');
+            // Generate a duplicate name by keeping the name of the previous record
+            if (index != duplicate || !hasPrevious) {
+                for (int i = 0; i < name.length; i++) {
+                    name[i] = (byte) ('a' + random.nextInt(26));
+                }
+            }
+            buffer.put(name).put((byte) '|');
+            for (int i = 0; i < 9; i++) {
+                buffer.put((byte) ('0' + random.nextInt(10)));
+            }
+            buffer.put((byte) '\n');
+        }
+    }
+
+}
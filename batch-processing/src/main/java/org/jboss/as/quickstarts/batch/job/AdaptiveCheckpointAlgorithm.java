@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractCheckpointAlgorithm;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.job.metrics.BatchMetrics;
+
+//This class grows or shrinks the chunk size so each chunk (read, process, write and commit) takes about targetLatency
+//milliseconds. The chosen sizes are reported in the step exit status and recorded in the step metrics (see BatchMetrics), which
+//are exposed over JMX and REST
+@Named("adaptiveCheckpointAlgorithm")
+public class AdaptiveCheckpointAlgorithm extends AbstractCheckpointAlgorithm {
+
+    // Wanted duration of a chunk, in milliseconds
+    @Inject
+    @BatchProperty
+    private String targetLatency;
+
+    // Size of the first chunk
+    @Inject
+    @BatchProperty
+    private String initialItems;
+
+    // Upper bound of the chunk size
+    @Inject
+    @BatchProperty
+    private String maxItems;
+
+    // Upper bound of the chunk duration, in seconds. Also used as the transaction timeout
+    @Inject
+    @BatchProperty
+    private String maxTime;
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private StepContext stepContext;
+
+    @Inject
+    private BatchMetrics batchMetrics;
+
+    @Inject
+    private Logger log;
+
+    private long targetNanos;
+
+    private long maxNanos;
+
+    private int upperBound;
+
+    private int chunkSize;
+
+    private int items;
+
+    private long chunkStart;
+
+    private long commitStart;
+
+    private long chunks;
+
+    private int minChosen = Integer.MAX_VALUE;
+
+    private int maxChosen;
+
+    private void init() {
+        targetNanos = TimeUnit.MILLISECONDS.toNanos(parse(targetLatency, 500));
+        maxNanos = TimeUnit.SECONDS.toNanos(parse(maxTime, 30));
+        upperBound = (int) parse(maxItems, 10000);
+        chunkSize = Math.min((int) parse(initialItems, 10), upperBound);
+        chunkStart = System.nanoTime();
+    }
+
+    private static long parse(String value, long defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+    }
+
+    @Override
+    public int checkpointTimeout() throws Exception {
+        return (int) parse(maxTime, 30);
+    }
+
+    @Override
+    public boolean isReadyToCheckpoint() throws Exception {
+        if (chunkSize == 0) {
+            init();
+        }
+        items++;
+        return items >= chunkSize || System.nanoTime() - chunkStart >= maxNanos;
+    }
+
+    @Override
+    public void beginCheckpoint() throws Exception {
+        commitStart = System.nanoTime();
+    }
+
+    @Override
+    public void endCheckpoint() throws Exception {
+        long now = System.nanoTime();
+        long latency = Math.max(now - chunkStart, 1);
+        if (items > 0) {
+            // Items that fit in the target at the measured cost per item, changing at most by a factor of 2 per chunk
+            long wanted = targetNanos * items / latency;
+            int next = (int) Math.max(chunkSize / 2, Math.min(wanted, chunkSize * 2L));
+            next = Math.max(1, Math.min(next, upperBound));
+            log.fine(String.format("Chunk of %d items took %.3f ms (commit %.3f ms). Next chunk size: %d", items, latency / 1e6,
+                (now - commitStart) / 1e6, next));
+            chunks++;
+            minChosen = Math.min(minChosen, items);
+            maxChosen = Math.max(maxChosen, items);
+            chunkSize = next;
+            batchMetrics.getStep(jobContext.getExecutionId(), jobContext.getJobName(), stepContext.getStepName()).recordChunkSize(items, chunkSize);
+            stepContext.setExitStatus(String.format("Adaptive chunk size: chunks=%d min=%d max=%d next=%d", chunks, minChosen, maxChosen, chunkSize));
+        }
+        items = 0;
+        chunkStart = now;
+    }
+
+}
@@ -19,7 +19,8 @@ package org.jboss.as.quickstarts.batch.job;
 import java.io.Serializable;
 
 /**
- * This class controls the checkpoint for the {@link RecordsReader}
+ * This class controls the checkpoint for the {@link RecordsReader}. It keeps the byte offset of the next record so the
+ * reader can seek straight to it on restart. Checkpoints that only have the line number are still accepted
  *
  */
 public class ChunkCheckpoint implements Serializable {
@@ -28,12 +29,31 @@ public class ChunkCheckpoint implements Serializable {
 
     private long lineNumber;
 
-    public void increase() {
+    private long offset;
+
+    public ChunkCheckpoint() {
+    }
+
+    public ChunkCheckpoint(ChunkCheckpoint other) {
+        this.lineNumber = other.lineNumber;
+        this.offset = other.offset;
+    }
+
+    public void increase(long nextOffset) {
         lineNumber++;
+        offset = nextOffset;
     }
 
     public long getLineNumber() {
         return lineNumber;
     }
 
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
 }
@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+//This batchlet cleans the database once before the partitions start. It is not executed again when the job is restarted
+@Named("cleanContactsBatchlet")
+public class CleanContactsBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private Logger log;
+
+    // Incremental imports keep the existing contacts, staging imports clean the staging table
+    @Inject
+    @BatchProperty
+    private String importMode;
+
+    @Override
+    @Transactional
+    public String process() throws Exception {
+        if ("incremental".equals(importMode)) {
+            return "SKIPPED";
+        }
+        if ("staging".equals(importMode)) {
+            log.info("Cleaning the staging table before the partitioned import");
+            entityManager.createQuery("DELETE FROM ContactStaging s").executeUpdate();
+            return "CLEANED";
+        }
+        log.info("Cleaning the Database before the partitioned import");
+        entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
+        return "CLEANED";
+    }
+
+}
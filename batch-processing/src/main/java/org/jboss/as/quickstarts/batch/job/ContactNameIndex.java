@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+/**
+ * This class keeps the name of every contact imported by a job execution, so duplicates are found before they reach the unique
+ * constraint of the database. The index is shared by all the partitions of an execution. It starts with the names already in
+ * the target table, which is empty on a new replace import, and is released by the JobListener when the execution ends
+ *
+ * A contact that is registered with a new name releases its previous name, like the row updated by an incremental import. The
+ * names are registered when the contacts are processed, before their chunk is committed, so the NameIndexListener undoes the
+ * registrations of a chunk that is rolled back. The chunk of a step or partition is processed by a single thread, so the
+ * registrations of the current chunk are kept per thread
+ *
+ */
+@ApplicationScoped
+public class ContactNameIndex {
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private Logger log;
+
+    private final ConcurrentMap<Long, Names> indexes = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Deque<Registration>> chunkRegistrations = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public void register(long executionId, String importMode, Contact contact) throws DuplicateContactException {
+        Names names = indexes.computeIfAbsent(executionId, id -> load(importMode));
+        Registration registration = names.register(contact);
+        if (registration != null) {
+            chunkRegistrations.get().push(registration);
+        }
+    }
+
+    // Called when a chunk starts or is committed
+    public void clearChunk() {
+        chunkRegistrations.get().clear();
+    }
+
+    // Called before a chunk is rolled back. The last registrations are undone first
+    public void rollbackChunk() {
+        Deque<Registration> registrations = chunkRegistrations.get();
+        while (!registrations.isEmpty()) {
+            registrations.pop().undo();
+        }
+    }
+
+    public void release(long executionId) {
+        indexes.remove(executionId);
+    }
+
+    private Names load(String importMode) {
+        String entity = "staging".equals(importMode) ? "ContactStaging" : "Contact";
+        List<Object[]> rows = entityManager.createQuery("SELECT c.name, c.id FROM " + entity + " c", Object[].class).getResultList();
+        Names names = new Names(rows.size());
+        for (Object[] row : rows) {
+            names.put((String) row[0], (Integer) row[1]);
+        }
+        log.info("Loaded " + rows.size() + " names from " + entity + " into the duplicate index");
+        return names;
+    }
+
+    // The names of an execution, in both directions. The partitions register under the lock of the instance
+    private static class Names {
+
+        private final Map<String, Integer> idsByName;
+
+        private final Map<Integer, String> namesById;
+
+        Names(int size) {
+            idsByName = new HashMap<>(Math.max(16, size * 2));
+            namesById = new HashMap<>(Math.max(16, size * 2));
+        }
+
+        synchronized void put(String name, Integer id) {
+            idsByName.put(name, id);
+            namesById.put(id, name);
+        }
+
+        // Returns null when the contact is already registered with the same name
+        synchronized Registration register(Contact contact) throws DuplicateContactException {
+            Integer existingId = idsByName.get(contact.getName());
+            // The same contact can be imported again by an incremental import
+            if (existingId != null) {
+                if (!existingId.equals(contact.getId())) {
+                    throw new DuplicateContactException(contact, existingId);
+                }
+                return null;
+            }
+            String previousName = namesById.put(contact.getId(), contact.getName());
+            if (previousName != null) {
+                idsByName.remove(previousName, contact.getId());
+            }
+            idsByName.put(contact.getName(), contact.getId());
+            return new Registration(this, contact.getId(), contact.getName(), previousName);
+        }
+
+        synchronized void undo(Registration registration) {
+            idsByName.remove(registration.name, registration.id);
+            if (registration.previousName == null) {
+                namesById.remove(registration.id, registration.name);
+            } else {
+                namesById.put(registration.id, registration.previousName);
+                idsByName.put(registration.previousName, registration.id);
+            }
+        }
+
+    }
+
+    private static class Registration {
+
+        private final Names names;
+
+        private final Integer id;
+
+        private final String name;
+
+        private final String previousName;
+
+        Registration(Names names, Integer id, String name, String previousName) {
+            this.names = names;
+            this.id = id;
+            this.name = name;
+            this.previousName = previousName;
+        }
+
+        void undo() {
+            names.undo(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.sql.DataSource;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class reads the contacts ordered by id in pages of fetchSize rows, each one queried with "WHERE id > lastId" through a
+//forward-only, read-only cursor that is closed before the page is returned. No cursor is kept open across the chunk
+//transactions and the table is never loaded in memory. The checkpoint is the id of the last contact read, and a restart
+//continues after it
+@Named("contactsExportReader")
+public class ContactsExportReader extends AbstractItemReader {
+
+    private static final String SELECT_CONTACTS = "SELECT id, name, phone FROM Contact WHERE id > ? ORDER BY id";
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    @BatchProperty
+    private String fetchSize;
+
+    private int pageSize;
+
+    private final Deque<Contact> page = new ArrayDeque<>();
+
+    // Set when a page returned less than pageSize rows
+    private boolean lastPage;
+
+    private Integer lastId;
+
+    @Override
+    public void open(Serializable checkpoint) throws Exception {
+        lastId = checkpoint == null ? Integer.MIN_VALUE : (Integer) checkpoint;
+        if (checkpoint != null) {
+            log.info("Exporting the contacts after #" + lastId + " as marked by previous checkpoint");
+        }
+        pageSize = fetchSize == null ? 1000 : Integer.parseInt(fetchSize);
+        page.clear();
+        lastPage = false;
+    }
+
+    @Override
+    public Object readItem() throws Exception {
+        if (page.isEmpty() && !lastPage) {
+            readPage();
+        }
+        Contact contact = page.poll();
+        if (contact != null) {
+            lastId = contact.getId();
+        }
+        return contact;
+    }
+
+    private void readPage() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(SELECT_CONTACTS, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(pageSize);
+            statement.setMaxRows(pageSize);
+            statement.setInt(1, lastId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Contact contact = new Contact();
+                    contact.setId(resultSet.getInt(1));
+                    contact.setName(resultSet.getString(2));
+                    contact.setPhone(resultSet.getString(3));
+                    page.add(contact);
+                }
+            }
+        }
+        lastPage = page.size() < pageSize;
+    }
+
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return lastId;
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class writes the exported contacts as "id|name|phone" lines, the format read by the import jobs. Every chunk is
+//encoded in a 1 MB buffer, without creating a String per line, and written to a FileChannel. The checkpoint is the size of
+//the file after the chunk, and a restart truncates the file to it. With the gzip format (the default for file names ending
+//with .gz) every chunk is a complete gzip member: a gzip file can hold several members, so it can be truncated after any of
+//them
+@Named("contactsExportWriter")
+public class ContactsExportWriter extends AbstractItemWriter {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    // delimited or gzip
+    @Inject
+    @BatchProperty
+    private String format;
+
+    @Inject
+    @BatchProperty
+    private String separator;
+
+    private FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private byte[] separatorBytes;
+
+    private boolean gzip;
+
+    @Override
+    public void open(Serializable checkpoint) throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        gzip = format == null || format.isEmpty() ? fileName.endsWith(".gz") : "gzip".equals(format);
+        separatorBytes = (separator == null || separator.isEmpty() ? "|" : separator).getBytes(StandardCharsets.UTF_8);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        long position = checkpoint == null ? 0 : (Long) checkpoint;
+        if (checkpoint != null) {
+            log.info("Truncating " + file + " to " + position + " bytes as marked by previous checkpoint");
+        }
+        channel.truncate(position);
+        channel.position(position);
+    }
+
+    @Override
+    public void writeItems(List<Object> items) throws Exception {
+        // Not closed, as it would close the channel. finish() completes the gzip member and end() releases the native memory
+        // of its Deflater
+        GzipMemberOutputStream gzipOut = gzip ? new GzipMemberOutputStream(Channels.newOutputStream(channel)) : null;
+        try {
+            for (Object item : items) {
+                Contact c = (Contact) item;
+                byte[] name = c.getName().getBytes(StandardCharsets.UTF_8);
+                byte[] phone = c.getPhone().getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < 11 + name.length + phone.length + 2 * separatorBytes.length + 1) {
+                    flush(gzipOut);
+                }
+                putId(c.getId());
+                buffer.put(separatorBytes).put(name).put(separatorBytes).put(phone).put((byte) '\n');
+            }
+            flush(gzipOut);
+            if (gzipOut != null) {
+                gzipOut.finish();
+            }
+        } finally {
+            buffer.clear();
+            if (gzipOut != null) {
+                gzipOut.end();
+            }
+        }
+    }
+
+    private void putId(int id) {
+        if (id < 0) {
+            buffer.put((byte) '-');
+        }
+        int start = buffer.position();
+        long value = Math.abs((long) id);
+        do {
+            buffer.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+        // The digits were written from the last one
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            byte digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
+    }
+
+    private void flush(GZIPOutputStream gzipOut) throws Exception {
+        buffer.flip();
+        if (gzipOut != null) {
+            gzipOut.write(buffer.array(), 0, buffer.limit());
+        } else {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        // The chunk was written by writeItems, so the file ends with a complete record
+        channel.force(false);
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static class GzipMemberOutputStream extends GZIPOutputStream {
+
+        GzipMemberOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+        }
+
+        void end() {
+            def.end();
+        }
+    }
+
+}
@@ -18,7 +18,9 @@ package org.jboss.as.quickstarts.batch.job;
 
 import java.util.logging.Logger;
 
+import javax.batch.api.BatchProperty;
 import javax.batch.api.chunk.ItemProcessor;
+import javax.batch.runtime.context.JobContext;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -31,6 +33,21 @@ public class ContactsFormatter implements ItemProcessor {
     @Inject
     private Logger log;
 
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private ContactNameIndex nameIndex;
+
+    // When true, a contact with a duplicate name is skipped and quarantined instead of failing the chunk
+    @Inject
+    @BatchProperty
+    private String quarantineDuplicates;
+
+    @Inject
+    @BatchProperty
+    private String importMode;
+
     @Override
     public Object processItem(Object item) throws Exception {
         Contact c = (Contact) item;
@@ -44,6 +61,9 @@ public class ContactsFormatter implements ItemProcessor {
         String newPhone = phone.replaceFirst("(\\d{3})(\\d{3})(\\d+)", "($1)-$2-$3");
         c.setPhone(newPhone);
         log.info(String.format("Register #%d - Changing name %s -> %s | phone  %s -> %s", c.getId(), name, newName, phone, newPhone));
+        if ("true".equals(quarantineDuplicates)) {
+            nameIndex.register(jobContext.getExecutionId(), importMode, c);
+        }
         return c;
     }
 
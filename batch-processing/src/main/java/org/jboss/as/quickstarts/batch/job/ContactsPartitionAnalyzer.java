@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+
+import javax.batch.api.partition.AbstractPartitionAnalyzer;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This class merges the counters sent by every partition into the step persistent user data, so they survive a restart
+@Named("contactsPartitionAnalyzer")
+public class ContactsPartitionAnalyzer extends AbstractPartitionAnalyzer {
+
+    @Inject
+    private StepContext stepContext;
+
+    @Override
+    public void analyzeCollectorData(Serializable data) throws Exception {
+        ImportCounts counts = (ImportCounts) stepContext.getPersistentUserData();
+        if (counts == null) {
+            counts = new ImportCounts();
+        }
+        counts.add((ImportCounts) data);
+        stepContext.setPersistentUserData(counts);
+    }
+
+}
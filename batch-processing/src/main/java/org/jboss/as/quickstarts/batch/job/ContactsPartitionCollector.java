@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+
+import javax.annotation.PostConstruct;
+import javax.batch.api.partition.PartitionCollector;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This class runs on each partition thread after every chunk and sends the counters added by the ContactsPersister since the
+//last call. On a restart the partition counters are restored, and they were already merged by the analyzer before
+@Named("contactsPartitionCollector")
+public class ContactsPartitionCollector implements PartitionCollector {
+
+    @Inject
+    private StepContext stepContext;
+
+    private ImportCounts reported;
+
+    @PostConstruct
+    void init() {
+        ImportCounts restored = (ImportCounts) stepContext.getPersistentUserData();
+        reported = restored == null ? new ImportCounts() : new ImportCounts(restored);
+    }
+
+    @Override
+    public Serializable collectPartitionData() throws Exception {
+        ImportCounts counts = (ImportCounts) stepContext.getPersistentUserData();
+        if (counts == null) {
+            return new ImportCounts();
+        }
+        ImportCounts delta = counts.since(reported);
+        reported = new ImportCounts(counts);
+        return delta;
+    }
+
+}
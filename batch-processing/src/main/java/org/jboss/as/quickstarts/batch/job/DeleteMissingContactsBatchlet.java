@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.annotation.Resource;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.UserTransaction;
+
+import org.jboss.as.quickstarts.batch.job.codec.InputCodecs;
+
+//This batchlet deletes the contacts that are not in the imported file. It only runs on incremental imports with deleteMissing
+//set to true. The ids of the file are collected in a BitSet, the ids of the database are paged by id and each batch of
+//missing contacts is deleted in its own transaction, so neither the ids nor the transaction grow with the table
+@Named("deleteMissingContactsBatchlet")
+public class DeleteMissingContactsBatchlet extends AbstractBatchlet {
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private Logger log;
+
+    @Resource
+    private UserTransaction userTransaction;
+
+    @Inject
+    private StepContext stepContext;
+
+    @Inject
+    @BatchProperty
+    private String separatorRegex;
+
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    @Inject
+    @BatchProperty
+    private String importMode;
+
+    @Inject
+    @BatchProperty
+    private String deleteMissing;
+
+    @Override
+    public String process() throws Exception {
+        if (!"incremental".equals(importMode) || !"true".equals(deleteMissing)) {
+            return "SKIPPED";
+        }
+        BitSet ids = readIds(new File(System.getProperty("java.io.tmpdir"), fileName));
+        List<Integer> missing = new ArrayList<>();
+        long deleted = 0;
+        int lastId = Integer.MIN_VALUE;
+        List<Integer> page;
+        do {
+            page = entityManager.createQuery("SELECT c.id FROM Contact c WHERE c.id > :lastId ORDER BY c.id", Integer.class)
+                .setParameter("lastId", lastId).setMaxResults(DELETE_BATCH_SIZE).getResultList();
+            for (Integer id : page) {
+                if (id < 0 || !ids.get(id)) {
+                    missing.add(id);
+                }
+                lastId = id;
+            }
+            deleted += delete(missing);
+        } while (page.size() == DELETE_BATCH_SIZE);
+        log.info("Deleted " + deleted + " contacts missing from " + fileName);
+        // Reported by the ReportBatchelet
+        ImportCounts counts = new ImportCounts();
+        counts.addDeleted(deleted);
+        stepContext.setPersistentUserData(counts);
+        return "DELETED";
+    }
+
+    private int delete(List<Integer> missing) throws Exception {
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        userTransaction.begin();
+        try {
+            int deleted = entityManager.createQuery("DELETE FROM Contact c WHERE c.id IN :ids").setParameter("ids", missing)
+                .executeUpdate();
+            userTransaction.commit();
+            return deleted;
+        } catch (Exception e) {
+            if (userTransaction.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                userTransaction.rollback();
+            }
+            throw e;
+        } finally {
+            missing.clear();
+        }
+    }
+
+    private BitSet readIds(File file) throws Exception {
+        BitSet ids = new BitSet();
+        RecordParser parser = new RecordParser(separatorRegex);
+        byte[] line = new byte[256];
+        try (InputStream in = new BufferedInputStream(Channels.newInputStream(InputCodecs.open(file)), 64 * 1024)) {
+            int length = 0;
+            int b;
+            do {
+                b = in.read();
+                if (b == '\n' || b == -1) {
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    if (length > 0) {
+                        int id = parser.parse(line, length).getId();
+                        if (id >= 0) {
+                            ids.set(id);
+                        }
+                    }
+                    length = 0;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = (byte) b;
+                }
+            } while (b != -1);
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+/**
+ * This exception is thrown when a contact has the same name as a contact with another id. It is declared as a skippable
+ * exception in the import jobs
+ *
+ */
+public class DuplicateContactException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public DuplicateContactException(Contact contact, Integer existingId) {
+        super("Contact #" + contact.getId() + " has the same name as contact #" + existingId + ": " + contact.getName());
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.ItemProcessor;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class does the same as ContactsFormatter for large imports: no regex and no logging per item.
+//The ProcessSummaryListener logs a summary for each chunk instead
+@Named("fastContactFormatter")
+public class FastContactsFormatter implements ItemProcessor {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private ContactNameIndex nameIndex;
+
+    // When true, a contact with a duplicate name is skipped and quarantined instead of failing the chunk
+    @Inject
+    @BatchProperty
+    private String quarantineDuplicates;
+
+    @Inject
+    @BatchProperty
+    private String importMode;
+
+    @Override
+    public Object processItem(Object item) throws Exception {
+        Contact c = (Contact) item;
+        c.setName(properCase(c.getName()));
+        c.setPhone(maskPhone(c.getPhone()));
+        if ("true".equals(quarantineDuplicates)) {
+            nameIndex.register(jobContext.getExecutionId(), importMode, c);
+        }
+        return c;
+    }
+
+    // Upper case for the first letter and lower case for the others. The others go through String.toLowerCase() like in
+    // the ContactsFormatter, so the locale and the multi-char mappings (e.g. the final sigma) give the same result
+    static String properCase(String name) {
+        if (name.isEmpty()) {
+            return name;
+        }
+        return new StringBuilder(name.length())
+            .append(Character.toUpperCase(name.charAt(0)))
+            .append(name.substring(1).toLowerCase())
+            .toString();
+    }
+
+    // Same result as phone.replaceFirst("(\\d{3})(\\d{3})(\\d+)", "($1)-$2-$3")
+    static String maskPhone(String phone) {
+        int length = phone.length();
+        int digits = 0;
+        for (int i = 0; i < length; i++) {
+            if (!isDigit(phone.charAt(i))) {
+                digits = 0;
+            } else if (++digits == 7) {
+                int start = i - 6;
+                return new StringBuilder(length + 4)
+                    .append(phone, 0, start)
+                    .append('(').append(phone, start, start + 3).append(")-")
+                    .append(phone, start + 3, start + 6).append('-')
+                    .append(phone, start + 6, length)
+                    .toString();
+            }
+        }
+        return phone;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
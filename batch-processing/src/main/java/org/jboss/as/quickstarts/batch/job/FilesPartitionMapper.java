@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This class creates one partition per file of the ImportManifest. Each file is imported on its own thread, with its own
+//checkpoint, so the throughput grows with the number of files up to the threads property
+@Named("filesPartitionMapper")
+public class FilesPartitionMapper implements PartitionMapper {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private Logger log;
+
+    // Relative to the temporary directory
+    @Inject
+    @BatchProperty
+    private String directory;
+
+    // Files imported at the same time. Defaults to the number of available processors
+    @Inject
+    @BatchProperty
+    private String threads;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        List<String> fileNames = ImportManifest.read(directory, jobContext.getInstanceId());
+        Properties[] partitionProperties = new Properties[fileNames.size()];
+        for (int i = 0; i < fileNames.size(); i++) {
+            Properties properties = new Properties();
+            // The readers resolve the file name against the temporary directory, like the directory
+            properties.setProperty("fileName", ImportManifest.claimedFileName(directory, jobContext.getInstanceId(), fileNames.get(i)));
+            partitionProperties[i] = properties;
+        }
+        int maxThreads = threads == null || threads.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        log.info("Importing " + fileNames.size() + " files from " + directory + " with " + Math.min(maxThreads, fileNames.size()) + " threads");
+
+        PartitionPlan plan = new PartitionPlanImpl();
+        plan.setPartitions(fileNames.size());
+        plan.setThreads(Math.min(maxThreads, fileNames.size()));
+        plan.setPartitionProperties(partitionProperties);
+        return plan;
+    }
+
+}
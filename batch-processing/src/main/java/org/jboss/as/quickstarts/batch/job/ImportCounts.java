@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+
+/**
+ * This class holds the counters of an import step. {@link ContactsPersister} keeps them as the step persistent user data, so
+ * they are saved with every checkpoint and survive a restart. On partitioned imports each partition sends the counters
+ * added since the last chunk to the {@link ContactsPartitionAnalyzer}, which merges them into the step persistent user data
+ *
+ */
+public class ImportCounts implements Serializable {
+
+    private static final long serialVersionUID = 2L;
+
+    private long inserted;
+
+    private long updated;
+
+    private long unchanged;
+
+    // Added by the ReportBatchelet from the skip metrics, which also count the skips after the last write of a chunk
+    private long skipped;
+
+    private long deleted;
+
+    public ImportCounts() {
+    }
+
+    public ImportCounts(ImportCounts other) {
+        add(other);
+    }
+
+    public void addInserted(long count) {
+        inserted += count;
+    }
+
+    public void addUpdated(long count) {
+        updated += count;
+    }
+
+    public void addUnchanged(long count) {
+        unchanged += count;
+    }
+
+    public void addSkipped(long count) {
+        skipped += count;
+    }
+
+    public void addDeleted(long count) {
+        deleted += count;
+    }
+
+    public void add(ImportCounts other) {
+        inserted += other.inserted;
+        updated += other.updated;
+        unchanged += other.unchanged;
+        skipped += other.skipped;
+        deleted += other.deleted;
+    }
+
+    /**
+     * Returns the counters added since {@code previous}
+     */
+    public ImportCounts since(ImportCounts previous) {
+        ImportCounts delta = new ImportCounts();
+        delta.inserted = inserted - previous.inserted;
+        delta.updated = updated - previous.updated;
+        delta.unchanged = unchanged - previous.unchanged;
+        delta.skipped = skipped - previous.skipped;
+        delta.deleted = deleted - previous.deleted;
+        return delta;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    // Contacts sent to the writer
+    public long getWritten() {
+        return inserted + updated + unchanged;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportCounts [inserted=" + inserted + ", updated=" + updated + ", unchanged=" + unchanged + ", skipped=" + skipped
+            + ", deleted=" + deleted + "]";
+    }
+
+}
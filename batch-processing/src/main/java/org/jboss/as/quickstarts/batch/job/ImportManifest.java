@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Lists the files of a directory import, one file name per line. The manifest is written once per job instance by the
+ * {@link ScanDirectoryBatchlet}, so a restart imports the same files in the same partitions, even if new files were added to
+ * the directory in the meantime. The listed files were claimed by moving them to the claimed directory of the job instance,
+ * so two imports of the same directory never import the same file
+ *
+ */
+public final class ImportManifest {
+
+    /**
+     * Processed files are moved to this subdirectory
+     */
+    public static final String PROCESSED_DIRECTORY = "processed";
+
+    private ImportManifest() {
+    }
+
+    /**
+     * Returns the directory of the import. Like the file names, it is relative to the temporary directory
+     */
+    public static File directory(String directory) {
+        return new File(System.getProperty("java.io.tmpdir"), directory);
+    }
+
+    /**
+     * Returns the directory the files of a job instance are moved to before being imported
+     */
+    public static File claimedDirectory(String directory, long jobInstanceId) {
+        return new File(directory(directory), claimedDirectoryName(jobInstanceId));
+    }
+
+    /**
+     * Returns the path of a claimed file, relative to the temporary directory like the directory
+     */
+    public static String claimedFileName(String directory, long jobInstanceId, String fileName) {
+        return new File(new File(directory, claimedDirectoryName(jobInstanceId)), fileName).getPath();
+    }
+
+    private static String claimedDirectoryName(long jobInstanceId) {
+        return ".import-" + jobInstanceId;
+    }
+
+    public static File file(String directory, long jobInstanceId) {
+        return new File(directory(directory), ".import-" + jobInstanceId + ".manifest");
+    }
+
+    public static List<String> read(String directory, long jobInstanceId) throws IOException {
+        return Files.readAllLines(file(directory, jobInstanceId).toPath(), StandardCharsets.UTF_8);
+    }
+
+    public static void write(String directory, long jobInstanceId, List<String> fileNames) throws IOException {
+        Files.write(file(directory, jobInstanceId).toPath(), fileNames, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This batchlet moves the imported files from the claimed directory to the processed subdirectory once every partition
+//completed, so the next directory import doesn't find them again. Their quarantine files are moved back to the directory.
+//The manifest is deleted last, as a restart of a failed job still needs it
+@Named("markProcessedFilesBatchlet")
+public class MarkProcessedFilesBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private Logger log;
+
+    // Relative to the temporary directory
+    @Inject
+    @BatchProperty
+    private String directory;
+
+    @Override
+    public String process() throws Exception {
+        File dir = ImportManifest.directory(directory);
+        File claimed = ImportManifest.claimedDirectory(directory, jobContext.getInstanceId());
+        File processed = new File(dir, ImportManifest.PROCESSED_DIRECTORY);
+        Files.createDirectories(processed.toPath());
+        int moved = 0;
+        for (String fileName : ImportManifest.read(directory, jobContext.getInstanceId())) {
+            File file = new File(claimed, fileName);
+            // Already moved by a previous execution that failed before deleting the manifest
+            if (file.exists()) {
+                Files.move(file.toPath(), new File(processed, fileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+                moved++;
+            }
+            File quarantine = new File(claimed, fileName + ".quarantine");
+            if (quarantine.exists()) {
+                Files.move(quarantine.toPath(), new File(dir, quarantine.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.deleteIfExists(claimed.toPath());
+        Files.delete(ImportManifest.file(directory, jobContext.getInstanceId()).toPath());
+        log.info("Moved " + moved + " imported files to " + processed);
+        return "MARKED";
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Resource;
+import javax.batch.api.BatchProperty;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class reads and parses the file on a managed thread, ahead of the chunk. While the writer commits a chunk,
+//the next records are already waiting in a bounded queue.
+//The checkpoint only moves for the records handed to the chunk, so a restart never skips a prefetched record
+@Named("pipelinedRecordsReader")
+public class PipelinedRecordsReader extends RecordsReader {
+
+    private static final Prefetched END = new Prefetched(null, 0, null);
+
+    // Maximum number of records read ahead of the chunk
+    @Inject
+    @BatchProperty
+    private String prefetch;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    private BlockingQueue<Prefetched> queue;
+
+    private ChunkCheckpoint consumed;
+
+    private CountDownLatch finished;
+
+    // Created on every open, as the runtime reopens the reader after a chunk rollback (retry or skip)
+    private AtomicBoolean started;
+
+    private Future<?> producer;
+
+    @Override
+    public void open(Serializable previousCheckpoint) throws Exception {
+        super.open(previousCheckpoint);
+        consumed = new ChunkCheckpoint((ChunkCheckpoint) super.checkpointInfo());
+        queue = new ArrayBlockingQueue<>(prefetch == null || prefetch.isEmpty() ? 1000 : Integer.parseInt(prefetch));
+        finished = new CountDownLatch(1);
+        started = new AtomicBoolean();
+        final AtomicBoolean producerStarted = started;
+        final CountDownLatch producerFinished = finished;
+        final BlockingQueue<Prefetched> producerQueue = queue;
+        producer = executorService.submit(() -> readAhead(producerStarted, producerFinished, producerQueue));
+    }
+
+    private void readAhead(AtomicBoolean started, CountDownLatch finished, BlockingQueue<Prefetched> queue) {
+        if (!started.compareAndSet(false, true)) {
+            // The reader was closed before this task started
+            return;
+        }
+        try {
+            try {
+                Contact contact;
+                while ((contact = super.readItem()) != null) {
+                    queue.put(new Prefetched(contact, ((ChunkCheckpoint) super.checkpointInfo()).getOffset(), null));
+                }
+                queue.put(END);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                // Hand the failure to the chunk thread
+                queue.put(new Prefetched(null, 0, e));
+            }
+        } catch (InterruptedException e) {
+            // The step is closing
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    @Override
+    public Contact readItem() throws Exception {
+        Prefetched next = queue.take();
+        if (next.error != null) {
+            throw next.error;
+        }
+        if (next == END) {
+            // Keep the marker for any later call
+            queue.put(END);
+            return null;
+        }
+        consumed.increase(next.offset);
+        return next.contact;
+    }
+
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return consumed;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (started != null && !started.compareAndSet(false, true)) {
+            producer.cancel(true);
+            finished.await();
+        }
+        started = null;
+        super.close();
+    }
+
+    private static class Prefetched {
+
+        private final Contact contact;
+
+        private final long offset;
+
+        private final Exception error;
+
+        Prefetched(Contact contact, long offset, Exception error) {
+            this.contact = contact;
+            this.offset = offset;
+            this.error = error;
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+
+//This batchlet finishes a staging import. It checks that the staged names are unique and then replaces the contacts with the
+//staged ones in a single transaction, so readers see either the old or the new contacts
+@Named("publishStagingBatchlet")
+public class PublishStagingBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    @BatchProperty
+    private String importMode;
+
+    @Override
+    @Transactional
+    public String process() throws Exception {
+        if (!"staging".equals(importMode)) {
+            return "SKIPPED";
+        }
+        List<String> duplicates = new ArrayList<>();
+        for (Object[] row : entityManager
+            .createQuery("SELECT s.name, COUNT(s) FROM ContactStaging s GROUP BY s.name HAVING COUNT(s) > 1", Object[].class)
+            .setMaxResults(10)
+            .getResultList()) {
+            duplicates.add(row[0] + " (" + row[1] + " times)");
+        }
+        if (!duplicates.isEmpty()) {
+            jobContext.setExitStatus("Error : duplicate names in the staging table " + duplicates);
+            throw new IllegalStateException("Duplicate names in the staging table: " + duplicates);
+        }
+        int deleted = entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
+        int inserted = entityManager
+            .createNativeQuery("INSERT INTO Contact (id, name, phone, contentHash) SELECT id, name, phone, contentHash FROM ContactStaging")
+            .executeUpdate();
+        entityManager.createQuery("DELETE FROM ContactStaging s").executeUpdate();
+        log.info("Replaced " + deleted + " contacts with " + inserted + " staged contacts");
+        return "PUBLISHED";
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+/**
+ * This class parses a record into a {@link Contact}. When the separator is a single ASCII character (like {@code |} or
+ * {@code [|]}) the fields are found by scanning the line bytes, without a regex, a String for the whole line or a String
+ * array. Any other separator is handled as a regular expression
+ *
+ */
+public class RecordParser {
+
+    private static final int NO_SEPARATOR = -1;
+
+    private final int separator;
+
+    private final Pattern pattern;
+
+    public RecordParser(String separatorRegex) {
+        this.separator = singleCharacter(separatorRegex);
+        this.pattern = separator == NO_SEPARATOR ? Pattern.compile(separatorRegex) : null;
+    }
+
+    // Returns the character matched by a regex like "|", "\\|" or "[|]", or NO_SEPARATOR for a real pattern
+    private static int singleCharacter(String regex) {
+        char c;
+        if (regex.length() == 3 && regex.charAt(0) == '[' && regex.charAt(2) == ']' && regex.charAt(1) != '^' && regex.charAt(1) != '\\') {
+            c = regex.charAt(1);
+        } else if (regex.length() == 2 && regex.charAt(0) == '\\' && !Character.isLetterOrDigit(regex.charAt(1))) {
+            c = regex.charAt(1);
+        } else if (regex.length() == 1 && ".$^|?*+()[]{}\\".indexOf(regex.charAt(0)) < 0) {
+            c = regex.charAt(0);
+        } else {
+            return NO_SEPARATOR;
+        }
+        return c < 0x80 ? c : NO_SEPARATOR;
+    }
+
+    /**
+     * Parses the first {@code length} bytes of {@code line}, encoded as UTF-8
+     */
+    public Contact parse(byte[] line, int length) {
+        if (pattern != null) {
+            String[] fields = pattern.split(new String(line, 0, length, StandardCharsets.UTF_8));
+            Contact contact = new Contact();
+            contact.setId(Integer.parseInt(fields[0]));
+            contact.setName(fields[1]);
+            contact.setPhone(fields[2]);
+            return contact;
+        }
+        int idEnd = indexOf(line, 0, length);
+        int nameEnd = indexOf(line, idEnd + 1, length);
+        int phoneEnd = indexOf(line, nameEnd + 1, length);
+        if (nameEnd == length) {
+            throw new ArrayIndexOutOfBoundsException("Expected 3 fields in record: " + new String(line, 0, length, StandardCharsets.UTF_8));
+        }
+        Contact contact = new Contact();
+        contact.setId(parseInt(line, 0, idEnd));
+        contact.setName(new String(line, idEnd + 1, nameEnd - idEnd - 1, StandardCharsets.UTF_8));
+        contact.setPhone(new String(line, nameEnd + 1, phoneEnd - nameEnd - 1, StandardCharsets.UTF_8));
+        return contact;
+    }
+
+    private int indexOf(byte[] line, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (line[i] == separator) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    // Same contract as Integer.parseInt, without creating a String
+    private static int parseInt(byte[] line, int from, int to) {
+        boolean negative = from < to && line[from] == '-';
+        int i = negative || (from < to && line[from] == '+') ? from + 1 : from;
+        if (i == to) {
+            throw new NumberFormatException("For input string: \"" + new String(line, from, to - from, StandardCharsets.UTF_8) + "\"");
+        }
+        // Accumulate negatively so Integer.MIN_VALUE can be parsed
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < to; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10 || result * 10 < limit + digit) {
+                throw new NumberFormatException("For input string: \"" + new String(line, from, to - from, StandardCharsets.UTF_8) + "\"");
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+}
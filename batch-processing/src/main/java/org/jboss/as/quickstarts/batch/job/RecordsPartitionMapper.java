@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.job.codec.InputCodecs;
+
+//This class splits the file in byte ranges aligned to line boundaries. Each range is imported by its own partition
+@Named("recordsPartitionMapper")
+public class RecordsPartitionMapper implements PartitionMapper {
+
+    // Here you can inject a property defined in import-file-partitioned.xml
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    // Number of partitions. Defaults to the number of available processors
+    @Inject
+    @BatchProperty
+    private String partitions;
+
+    @Inject
+    private Logger log;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        int requested = partitions == null || partitions.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(partitions);
+        List<Long> boundaries = new ArrayList<>();
+        boolean compressed = InputCodecs.forFile(fileName) != null;
+        if (compressed) {
+            // Offsets of a compressed file cannot be mapped to the decoded records
+            log.info("Compressed file " + file + " is imported by a single partition");
+            requested = 1;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            boundaries.add(0L);
+            for (int i = 1; i < requested; i++) {
+                long boundary = nextLineStart(channel, size * i / requested);
+                // Small files may have less lines than requested partitions
+                if (boundary > boundaries.get(boundaries.size() - 1) && boundary < size) {
+                    boundaries.add(boundary);
+                }
+            }
+            // The decoded size of a compressed file is not known, its single partition reads to the end
+            boundaries.add(compressed ? Long.MAX_VALUE : size);
+        }
+
+        int count = boundaries.size() - 1;
+        Properties[] partitionProperties = new Properties[count];
+        for (int i = 0; i < count; i++) {
+            Properties properties = new Properties();
+            properties.setProperty("startOffset", String.valueOf(boundaries.get(i)));
+            properties.setProperty("endOffset", String.valueOf(boundaries.get(i + 1)));
+            partitionProperties[i] = properties;
+        }
+        log.info("Splitting " + file + " into " + count + " partitions at offsets " + boundaries);
+
+        PartitionPlan plan = new PartitionPlanImpl();
+        plan.setPartitions(count);
+        plan.setThreads(count);
+        plan.setPartitionProperties(partitionProperties);
+        return plan;
+    }
+
+    // Returns the offset of the first line starting at or after the given position
+    private long nextLineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        // Start on the previous byte so a position that is already a line start is kept
+        long offset = position - 1;
+        while (channel.read(buffer, offset) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                offset++;
+                if (buffer.get() == '\n') {
+                    return offset;
+                }
+            }
+            buffer.clear();
+        }
+        return channel.size();
+    }
+
+}
@@ -16,10 +16,13 @@
  */
 package org.jboss.as.quickstarts.batch.job;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
 import java.util.logging.Logger;
 
 import javax.batch.api.BatchProperty;
@@ -27,9 +30,11 @@ import javax.batch.api.chunk.ItemReader;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.jboss.as.quickstarts.batch.job.codec.InputCodecs;
 import org.jboss.as.quickstarts.batch.model.Contact;
 
 //This class will read the file and return an instance of Contact to be imported
+//Compressed files (e.g. .gz) are decoded while they are read. See InputCodec
 @Named("recordsReader")
 public class RecordsReader implements ItemReader {
 
@@ -43,16 +48,36 @@ public class RecordsReader implements ItemReader {
     @BatchProperty
     private String fileName;
 
+    // First byte of the range to be read. Only defined when running as a partition
+    @Inject
+    @BatchProperty
+    private String startOffset;
+
+    // Byte offset where the range ends (exclusive). Only defined when running as a partition
+    @Inject
+    @BatchProperty
+    private String endOffset;
+
     @Inject
     private Logger log;
 
-    private BufferedReader br;
+    private ReadableByteChannel channel;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+
+    private byte[] lineBuffer = new byte[256];
+
+    private long position;
+
+    private long endPosition;
+
+    private RecordParser parser;
 
     private ChunkCheckpoint checkpoint;
 
     @Override
     public void close() throws Exception {
-        br.close();
+        channel.close();
     }
 
     @Override
@@ -64,27 +89,90 @@ public class RecordsReader implements ItemReader {
         else {
             this.checkpoint = (ChunkCheckpoint) previousCheckpoint;
         }
-        br = new BufferedReader(new FileReader(new File(System.getProperty("java.io.tmpdir"), fileName)));
+        parser = new RecordParser(separatorRegex);
+        File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        channel = InputCodecs.open(file);
+        position = startOffset == null ? 0 : Long.parseLong(startOffset);
+        endPosition = endOffset == null ? Long.MAX_VALUE : Long.parseLong(endOffset);
         long lineNumber = checkpoint.getLineNumber();
-        if (lineNumber > 0) {
+        if (checkpoint.getOffset() > 0) {
+            // Seek straight to the next record
+            position = checkpoint.getOffset();
+            log.info("Skipping to line " + lineNumber + " (byte " + position + ") as marked by previous checkpoint");
+        }
+        buffer.limit(0);
+        if (channel instanceof SeekableByteChannel) {
+            ((SeekableByteChannel) channel).position(position);
+        } else {
+            skipTo(position);
+        }
+        if (lineNumber > 0 && checkpoint.getOffset() == 0) {
+            // Checkpoints written before the byte offset was recorded only know the line number
             log.info("Skipping to line " + lineNumber + " as marked by previous checkpoint");
+            for (long i = 0; i < lineNumber; i++) {
+                readLine();
+            }
+            checkpoint.setOffset(position);
+        }
+    }
+
+    // Decoded streams cannot seek, so the bytes before the position are read and discarded
+    private void skipTo(long target) throws IOException {
+        long skipped = 0;
+        while (skipped < target) {
+            buffer.clear();
+            if (channel.read(buffer) == -1) {
+                break;
+            }
+            buffer.flip();
+            int count = (int) Math.min(buffer.remaining(), target - skipped);
+            buffer.position(buffer.position() + count);
+            skipped += count;
+        }
+    }
+
+    // Reads the next line into lineBuffer and returns its length, or -1 at the end of the range.
+    // The byte position is kept so the reader stops at the end of its range
+    private int readLine() throws IOException {
+        if (position >= endPosition) {
+            return -1;
+        }
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read == -1) {
+                    if (length == 0) {
+                        return -1;
+                    }
+                    break;
+                }
+            }
+            byte b = buffer.get();
+            position++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+            }
+            lineBuffer[length++] = b;
         }
-        for (long i = 0; i < lineNumber; i++) {
-            br.readLine();
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--;
         }
+        return length;
     }
 
     @Override
     public Contact readItem() throws Exception {
-        String line = br.readLine();
-        if (line != null) {
-            String[] fields = line.split(separatorRegex);
-            Contact contact = new Contact();
-            contact.setId(Integer.parseInt(fields[0]));
-            contact.setName(fields[1]);
-            contact.setPhone(fields[2]);
-            // update the checkpoint
-            checkpoint.increase();
+        int length = readLine();
+        if (length != -1) {
+            Contact contact = parser.parse(lineBuffer, length);
+            // update the checkpoint with the offset of the next record
+            checkpoint.increase(position);
             return contact;
         }
         return null;
@@ -16,30 +16,134 @@
  */
 package org.jboss.as.quickstarts.batch.job;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
+import javax.annotation.Resource;
+import javax.batch.api.BatchProperty;
 import javax.batch.api.Batchlet;
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+import javax.batch.runtime.context.JobContext;
+import javax.enterprise.concurrent.ManagedExecutorService;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.persistence.EntityManager;
 
 //This batchlet just reports how many records was imported to database
+//The counters are kept by the import steps as their persistent user data (see ImportCounts), so the table is not counted.
+//The skipped contacts are read from the skip metrics of the import steps.
+//The verify property can count the table to check them: sync counts it in this step, async counts it on a managed thread
+//after the step ends. verifyEvery set to N only verifies one job execution out of N
 @Named("reportBatchelet")
 public class ReportBatchelet implements Batchlet {
 
     @Inject
     private EntityManager entityManager;
 
+    @Resource
+    private ManagedExecutorService executorService;
+
+    @Inject
+    private JobContext jobContext;
+
     @Inject
     private Logger log;
 
+    // none (default), sync or async
+    @Inject
+    @BatchProperty
+    private String verify;
+
+    @Inject
+    @BatchProperty
+    private String verifyEvery;
+
+    // The table can only be checked when it was replaced by the import
+    @Inject
+    @BatchProperty
+    private String importMode;
+
     @Override
     public String process() throws Exception {
-        long contacts = (long) entityManager.createQuery("SELECT COUNT(c) FROM Contact c").getSingleResult();
-        log.info("Imported " + contacts + " contacts into the database.");
+        JobOperator jobOperator = BatchRuntime.getJobOperator();
+        // A restart doesn't run again the steps completed by the previous executions, so the latest execution of each step is
+        // reported. The skip metrics start from zero on every execution, so they are added over all the executions
+        Map<String, StepExecution> latest = new LinkedHashMap<>();
+        Map<String, Long> skips = new HashMap<>();
+        JobInstance jobInstance = jobOperator.getJobInstance(jobContext.getExecutionId());
+        for (JobExecution jobExecution : jobOperator.getJobExecutions(jobInstance)) {
+            for (StepExecution stepExecution : jobOperator.getStepExecutions(jobExecution.getExecutionId())) {
+                StepExecution previous = latest.get(stepExecution.getStepName());
+                if (previous == null || stepExecution.getStepExecutionId() > previous.getStepExecutionId()) {
+                    latest.put(stepExecution.getStepName(), stepExecution);
+                }
+                skips.merge(stepExecution.getStepName(), skipCount(stepExecution), Long::sum);
+            }
+        }
+        ImportCounts total = new ImportCounts();
+        // Partitioned imports keep the merged counters as the persistent user data of the import step
+        for (StepExecution stepExecution : latest.values()) {
+            if (stepExecution.getPersistentUserData() instanceof ImportCounts) {
+                ImportCounts counts = new ImportCounts((ImportCounts) stepExecution.getPersistentUserData());
+                counts.addSkipped(skips.get(stepExecution.getStepName()));
+                log.info("Step " + stepExecution.getStepName() + ": " + counts.getInserted() + " inserted, " + counts.getUpdated() + " updated, "
+                    + counts.getUnchanged() + " unchanged, " + counts.getSkipped() + " skipped, " + counts.getDeleted() + " deleted.");
+                total.add(counts);
+            }
+        }
+        log.info("Imported " + (total.getInserted() + total.getUpdated()) + " contacts into the database.");
+        if (isVerified()) {
+            // Staging imports are moved to the Contact table by the publish-staging step
+            final long expected = total.getInserted();
+            if ("async".equals(verify)) {
+                executorService.execute(() -> verify(expected));
+            } else {
+                verify(expected);
+            }
+        }
         return "END";
     }
 
+    // The metrics of a partitioned step include the metrics of its partitions
+    private static long skipCount(StepExecution stepExecution) {
+        long skips = 0;
+        for (Metric metric : stepExecution.getMetrics()) {
+            if (metric.getType() == Metric.MetricType.READ_SKIP_COUNT || metric.getType() == Metric.MetricType.PROCESS_SKIP_COUNT
+                || metric.getType() == Metric.MetricType.WRITE_SKIP_COUNT) {
+                skips += metric.getValue();
+            }
+        }
+        return skips;
+    }
+
+    private boolean isVerified() {
+        if (verify == null || "none".equals(verify)) {
+            return false;
+        }
+        if ("incremental".equals(importMode)) {
+            log.info("The contacts of incremental imports are not verified.");
+            return false;
+        }
+        long every = verifyEvery == null ? 1 : Long.parseLong(verifyEvery);
+        return every <= 1 || jobContext.getExecutionId() % every == 0;
+    }
+
+    private void verify(long expected) {
+        long contacts = (long) entityManager.createQuery("SELECT COUNT(c) FROM Contact c").getSingleResult();
+        if (contacts == expected) {
+            log.info("Verified " + contacts + " contacts in the database.");
+        } else {
+            log.warning("Expected " + expected + " contacts in the database but found " + contacts + ".");
+        }
+    }
+
     @Override
     public void stop() throws Exception {
 
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This batchlet claims the files of the directory matching the filePattern glob (e.g. *.txt) and lists them in the ImportManifest.
+//Each file is claimed with an atomic move to the claimed directory of the job instance, so when two imports scan the
+//directory at the same time, every file is imported by only one of them. Processed files were moved to a subdirectory, so
+//they are not listed again. It ends the job when there is nothing to import
+@Named("scanDirectoryBatchlet")
+public class ScanDirectoryBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private Logger log;
+
+    // Relative to the temporary directory
+    @Inject
+    @BatchProperty
+    private String directory;
+
+    @Inject
+    @BatchProperty
+    private String filePattern;
+
+    @Override
+    public String process() throws Exception {
+        File dir = ImportManifest.directory(directory);
+        File claimed = ImportManifest.claimedDirectory(directory, jobContext.getInstanceId());
+        // Created on the first import, so the files can be dropped in it
+        Files.createDirectories(claimed.toPath());
+        List<String> fileNames = new ArrayList<>();
+        // Files claimed by a previous execution of this job instance that failed before writing the manifest
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(claimed.toPath())) {
+            for (Path file : files) {
+                fileNames.add(file.getFileName().toString());
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir.toPath(), filePattern)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                // Skips the manifests, the claimed directories and the quarantine files of previous imports
+                if (Files.isRegularFile(file) && !name.startsWith(".") && !name.endsWith(".quarantine")) {
+                    try {
+                        Files.move(file, claimed.toPath().resolve(name), StandardCopyOption.ATOMIC_MOVE);
+                        fileNames.add(name);
+                    } catch (NoSuchFileException e) {
+                        log.info("Skipping " + name + ", claimed by another import");
+                    }
+                }
+            }
+        }
+        Collections.sort(fileNames);
+        log.info("Claimed " + fileNames.size() + " files matching " + filePattern + " in " + dir + ": " + fileNames);
+        if (fileNames.isEmpty()) {
+            Files.delete(claimed.toPath());
+            return "NO_FILES";
+        }
+        ImportManifest.write(directory, jobContext.getInstanceId(), fileNames);
+        return "SCANNED";
+    }
+
+}
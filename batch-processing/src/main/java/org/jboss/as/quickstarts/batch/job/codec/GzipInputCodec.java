@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decompresses {@code .gz} files while they are read, without an uncompressed copy on disk
+ *
+ */
+public class GzipInputCodec implements InputCodec {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    @Override
+    public boolean handles(String fileName) {
+        return fileName.endsWith(".gz");
+    }
+
+    @Override
+    public InputStream open(Path file) throws IOException {
+        return new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE);
+    }
+
+}
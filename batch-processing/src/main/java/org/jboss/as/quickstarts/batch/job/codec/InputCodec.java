@@ -0,0 +1,40 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Service provider interface for compressed import files. Implementations are registered in
+ * {@code META-INF/services/org.jboss.as.quickstarts.batch.job.codec.InputCodec} and found by {@link InputCodecs}
+ *
+ */
+public interface InputCodec {
+
+    /**
+     * Returns true when this codec decodes the given file, usually based on its extension
+     */
+    boolean handles(String fileName);
+
+    /**
+     * Opens a stream with the decoded content of the file
+     */
+    InputStream open(Path file) throws IOException;
+
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.codec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ServiceLoader;
+
+/**
+ * Opens the import files. Plain files are opened as a {@link java.nio.channels.SeekableByteChannel}, files handled by an
+ * {@link InputCodec} as a channel over the decoded stream, which can only be read forward
+ *
+ */
+public final class InputCodecs {
+
+    private InputCodecs() {
+    }
+
+    /**
+     * Returns the codec for the given file, or null for a plain file
+     */
+    public static InputCodec forFile(String fileName) {
+        for (InputCodec codec : ServiceLoader.load(InputCodec.class, InputCodecs.class.getClassLoader())) {
+            if (codec.handles(fileName)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    public static ReadableByteChannel open(File file) throws IOException {
+        InputCodec codec = forFile(file.getName());
+        if (codec == null) {
+            return Files.newByteChannel(file.toPath(), StandardOpenOption.READ);
+        }
+        return Channels.newChannel(codec.open(file.toPath()));
+    }
+
+}
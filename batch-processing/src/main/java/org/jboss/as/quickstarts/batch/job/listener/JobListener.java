@@ -27,7 +27,12 @@ import javax.batch.runtime.context.JobContext;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.jboss.as.quickstarts.batch.controller.JobHistory;
+import org.jboss.as.quickstarts.batch.job.ContactNameIndex;
+import org.jboss.as.quickstarts.batch.job.metrics.BatchMetrics;
+
 //This listener modifies the Job to ABANDONED state if it was restarted once
+//It also invalidates the cached job history when a job starts or ends, and releases the metrics of the execution when it ends
 @Named("jobListener")
 public class JobListener extends AbstractJobListener {
 
@@ -37,13 +42,25 @@ public class JobListener extends AbstractJobListener {
     @Inject
     private JobContext jobContext;
 
+    @Inject
+    private ContactNameIndex nameIndex;
+
+    @Inject
+    private JobHistory jobHistory;
+
+    @Inject
+    private BatchMetrics batchMetrics;
+
     @Override
     public void beforeJob() throws Exception {
+        jobHistory.invalidate();
         log.info(String.format("Job %s - Execution #%d starting.", jobContext.getJobName(), jobContext.getExecutionId()));
     }
 
     @Override
     public void afterJob() throws Exception {
+        nameIndex.release(jobContext.getExecutionId());
+        batchMetrics.release(jobContext.getExecutionId());
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         Properties jobParameters = jobOperator.getParameters(jobContext.getExecutionId());
         //If the JOB was already restarted once, mark it as abandoned
@@ -51,6 +68,7 @@ public class JobListener extends AbstractJobListener {
             log.info("Job already restarted once! Abandoning it forever");
             jobOperator.abandon(jobContext.getExecutionId());
         }
+        jobHistory.invalidate();
         log.info(String.format("Job %s - Execution #%d finished. Status: %s", jobContext.getJobName(), jobContext.getExecutionId(), jobContext.getBatchStatus()));
     }
 
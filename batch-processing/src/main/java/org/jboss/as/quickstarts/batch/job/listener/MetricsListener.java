@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.listener;
+
+import java.util.List;
+
+import javax.batch.api.chunk.listener.ChunkListener;
+import javax.batch.api.chunk.listener.ItemProcessListener;
+import javax.batch.api.chunk.listener.ItemReadListener;
+import javax.batch.api.chunk.listener.ItemWriteListener;
+import javax.batch.api.chunk.listener.RetryProcessListener;
+import javax.batch.api.chunk.listener.RetryReadListener;
+import javax.batch.api.chunk.listener.RetryWriteListener;
+import javax.batch.api.chunk.listener.SkipProcessListener;
+import javax.batch.api.chunk.listener.SkipReadListener;
+import javax.batch.api.chunk.listener.SkipWriteListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.job.metrics.BatchMetrics;
+import org.jboss.as.quickstarts.batch.job.metrics.StepMetrics;
+
+/**
+ * This listener records the read, process and write time, the chunk and commit latencies and the skips and retries of a chunk
+ * step in {@link BatchMetrics}. Add it to the listeners of any chunk step:
+ *
+ * <pre>
+ * &lt;listener ref="metricsListener" /&gt;
+ * </pre>
+ *
+ * The commit latency is the time between the end of the write and the end of the chunk, which includes the checkpoint and the
+ * commit of the chunk transaction.
+ */
+@Named("metricsListener")
+public class MetricsListener implements ChunkListener, ItemReadListener, ItemProcessListener, ItemWriteListener, SkipReadListener,
+    SkipProcessListener, SkipWriteListener, RetryReadListener, RetryProcessListener, RetryWriteListener {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private StepContext stepContext;
+
+    @Inject
+    private BatchMetrics batchMetrics;
+
+    private StepMetrics metrics;
+
+    private long chunkStart;
+
+    private long readStart;
+
+    private long processStart;
+
+    private long writeStart;
+
+    private long writeEnd;
+
+    private StepMetrics metrics() {
+        if (metrics == null) {
+            metrics = batchMetrics.getStep(jobContext.getExecutionId(), jobContext.getJobName(), stepContext.getStepName());
+        }
+        return metrics;
+    }
+
+    @Override
+    public void beforeChunk() throws Exception {
+        chunkStart = System.nanoTime();
+        writeEnd = 0;
+        metrics().chunkStarted(chunkStart);
+    }
+
+    @Override
+    public void onError(Exception ex) throws Exception {
+        // The chunk is rolled back, so there is no commit to measure
+        writeEnd = 0;
+    }
+
+    @Override
+    public void afterChunk() throws Exception {
+        long now = System.nanoTime();
+        StepMetrics m = metrics();
+        m.chunkEnded(now);
+        m.recordChunk(now - chunkStart, writeEnd == 0 ? -1 : now - writeEnd);
+    }
+
+    @Override
+    public void beforeRead() throws Exception {
+        readStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterRead(Object item) throws Exception {
+        // The reader returns null at the end of the data
+        metrics().recordRead(System.nanoTime() - readStart, item != null);
+    }
+
+    @Override
+    public void onReadError(Exception ex) throws Exception {
+        metrics().recordRead(System.nanoTime() - readStart, false);
+    }
+
+    @Override
+    public void beforeProcess(Object item) throws Exception {
+        processStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) throws Exception {
+        metrics().recordProcess(System.nanoTime() - processStart);
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception ex) throws Exception {
+        metrics().recordProcess(System.nanoTime() - processStart);
+    }
+
+    @Override
+    public void beforeWrite(List<Object> items) throws Exception {
+        writeStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterWrite(List<Object> items) throws Exception {
+        writeEnd = System.nanoTime();
+        metrics().recordWrite(writeEnd - writeStart, items.size());
+    }
+
+    @Override
+    public void onWriteError(List<Object> items, Exception ex) throws Exception {
+        metrics().recordWrite(System.nanoTime() - writeStart, 0);
+    }
+
+    @Override
+    public void onSkipReadItem(Exception ex) throws Exception {
+        metrics().recordReadSkip();
+    }
+
+    @Override
+    public void onSkipProcessItem(Object item, Exception ex) throws Exception {
+        metrics().recordProcessSkip();
+    }
+
+    @Override
+    public void onSkipWriteItem(List<Object> items, Exception ex) throws Exception {
+        metrics().recordWriteSkips(items.size());
+    }
+
+    @Override
+    public void onRetryReadException(Exception ex) throws Exception {
+        metrics().recordReadRetry();
+    }
+
+    @Override
+    public void onRetryProcessException(Object item, Exception ex) throws Exception {
+        metrics().recordProcessRetry();
+    }
+
+    @Override
+    public void onRetryWriteException(List<Object> items, Exception ex) throws Exception {
+        metrics().recordWriteRetry();
+    }
+}
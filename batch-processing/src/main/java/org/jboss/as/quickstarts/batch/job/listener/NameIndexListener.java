@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.listener;
+
+import javax.batch.api.chunk.listener.AbstractChunkListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.job.ContactNameIndex;
+
+//This listener undoes the names registered in the ContactNameIndex by a chunk that is rolled back, so its contacts are not
+//found as duplicates of themselves when they are processed again
+@Named("nameIndexListener")
+public class NameIndexListener extends AbstractChunkListener {
+
+    @Inject
+    private ContactNameIndex nameIndex;
+
+    @Override
+    public void beforeChunk() throws Exception {
+        nameIndex.clearChunk();
+    }
+
+    @Override
+    public void onError(Exception ex) throws Exception {
+        nameIndex.rollbackChunk();
+    }
+
+    @Override
+    public void afterChunk() throws Exception {
+        nameIndex.clearChunk();
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.listener;
+
+import java.util.logging.Logger;
+
+import javax.batch.api.chunk.listener.AbstractChunkListener;
+import javax.batch.api.chunk.listener.ItemProcessListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+//This listener logs one summary line per chunk instead of one line per processed item
+@Named("processSummaryListener")
+public class ProcessSummaryListener extends AbstractChunkListener implements ItemProcessListener {
+
+    @Inject
+    private Logger log;
+
+    private int processed;
+
+    private long processingTime;
+
+    private long itemStart;
+
+    @Override
+    public void beforeChunk() throws Exception {
+        processed = 0;
+        processingTime = 0;
+    }
+
+    @Override
+    public void beforeProcess(Object item) throws Exception {
+        itemStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterProcess(Object item, Object result) throws Exception {
+        processingTime += System.nanoTime() - itemStart;
+        processed++;
+    }
+
+    @Override
+    public void onProcessError(Object item, Exception ex) throws Exception {
+        log.info("Error processing " + item + ": " + ex.getMessage());
+    }
+
+    @Override
+    public void afterChunk() throws Exception {
+        log.info(String.format("Formatted %d contacts in %.3f ms", processed, processingTime / 1e6));
+    }
+
+}
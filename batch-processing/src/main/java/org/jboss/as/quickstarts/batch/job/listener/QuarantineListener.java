@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.listener;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.SkipProcessListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This listener writes the skipped contacts to a quarantine file next to the imported file (<fileName>.quarantine)
+@Named("quarantineListener")
+public class QuarantineListener implements SkipProcessListener {
+
+    // Partitions of the same job append to the same file
+    private static final Object LOCK = new Object();
+
+    @Inject
+    private Logger log;
+
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    @Override
+    public void onSkipProcessItem(Object item, Exception ex) throws Exception {
+        Contact c = (Contact) item;
+        File quarantine = new File(System.getProperty("java.io.tmpdir"), fileName + ".quarantine");
+        log.info("Quarantining contact #" + c.getId() + " in " + quarantine + ": " + ex.getMessage());
+        String record = c.getId() + "|" + c.getName() + "|" + c.getPhone();
+        synchronized (LOCK) {
+            Files.write(quarantine.toPath(), Collections.singletonList(record), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Holds the metrics recorded by the {@code metricsListener} for every step of the running job executions, keyed by
+ * "executionId/stepName", so concurrent executions and restarts of the same job have their own counters. When an execution
+ * ends, the {@code JobListener} releases its steps and only the snapshots of the last {@value #FINISHED_STEPS} finished steps
+ * are kept. The metrics are registered in the platform MBean server when the application starts and are also served by the
+ * REST endpoint {@code /rest/metrics}.
+ */
+@ApplicationScoped
+public class BatchMetrics implements BatchMetricsMXBean {
+
+    static final int FINISHED_STEPS = 64;
+
+    private final ConcurrentMap<String, StepMetrics> steps = new ConcurrentHashMap<>();
+
+    // Guarded by itself, most recently finished last
+    private final Map<String, StepMetricsSnapshot> finished = new LinkedHashMap<String, StepMetricsSnapshot>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StepMetricsSnapshot> eldest) {
+            return size() > FINISHED_STEPS;
+        }
+    };
+
+    private MBeanServer mbeanServer;
+
+    private ObjectName objectName;
+
+    @PostConstruct
+    protected void startup() {
+        try {
+            objectName = new ObjectName("org.jboss.as.quickstarts.batch", "type", "BatchMetrics");
+            mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            mbeanServer.registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error during registration of BatchMetrics into JMX:" + e, e);
+        }
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        try {
+            mbeanServer.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error during unregistration of BatchMetrics into JMX:" + e, e);
+        }
+    }
+
+    // Creates the bean, and so registers the MBean, when the application starts
+    void init(@Observes @Initialized(ApplicationScoped.class) Object init) {
+        steps.size();
+    }
+
+    public StepMetrics getStep(long executionId, String jobName, String stepName) {
+        return steps.computeIfAbsent(executionId + "/" + stepName, key -> new StepMetrics(executionId, jobName, stepName));
+    }
+
+    // Called when the job execution ends. Its steps are kept as snapshots
+    public void release(long executionId) {
+        String prefix = executionId + "/";
+        for (Iterator<Map.Entry<String, StepMetrics>> it = steps.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, StepMetrics> step = it.next();
+            if (step.getKey().startsWith(prefix)) {
+                synchronized (finished) {
+                    finished.put(step.getKey(), step.getValue().snapshot());
+                }
+                it.remove();
+            }
+        }
+    }
+
+    public StepMetricsSnapshot getSnapshot(long executionId, String stepName) {
+        String key = executionId + "/" + stepName;
+        StepMetrics metrics = steps.get(key);
+        if (metrics != null) {
+            return metrics.snapshot();
+        }
+        synchronized (finished) {
+            return finished.get(key);
+        }
+    }
+
+    @Override
+    public List<StepMetricsSnapshot> getSteps() {
+        List<StepMetricsSnapshot> result = new ArrayList<>();
+        synchronized (finished) {
+            result.addAll(finished.values());
+        }
+        for (StepMetrics metrics : steps.values()) {
+            result.add(metrics.snapshot());
+        }
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        steps.clear();
+        synchronized (finished) {
+            finished.clear();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+//This class accumulates the metrics of a step of a job execution. The partitions of the step update it from several threads
+public class StepMetrics {
+
+    private final long executionId;
+
+    private final String jobName;
+
+    private final String stepName;
+
+    private final LongAdder itemsRead = new LongAdder();
+
+    private final LongAdder itemsProcessed = new LongAdder();
+
+    private final LongAdder itemsWritten = new LongAdder();
+
+    private final LongAdder chunks = new LongAdder();
+
+    private final LongAdder readNanos = new LongAdder();
+
+    private final LongAdder processNanos = new LongAdder();
+
+    private final LongAdder writeNanos = new LongAdder();
+
+    private final LongAdder readSkips = new LongAdder();
+
+    private final LongAdder processSkips = new LongAdder();
+
+    private final LongAdder writeSkips = new LongAdder();
+
+    private final LongAdder readRetries = new LongAdder();
+
+    private final LongAdder processRetries = new LongAdder();
+
+    private final LongAdder writeRetries = new LongAdder();
+
+    private final LatencyHistogram chunkLatency = new LatencyHistogram();
+
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+
+    // Chunk sizes chosen by a custom checkpoint algorithm, such as the AdaptiveCheckpointAlgorithm
+    private final AtomicInteger minChunkSize = new AtomicInteger(Integer.MAX_VALUE);
+
+    private final AtomicInteger maxChunkSize = new AtomicInteger();
+
+    private final AtomicInteger nextChunkSize = new AtomicInteger();
+
+    // Wall clock time spent in chunks, counted once when partitions overlap. System.nanoTime() can be negative, so the times
+    // are unset while they are Long.MIN_VALUE
+    private final AtomicLong firstChunkStart = new AtomicLong(Long.MIN_VALUE);
+
+    private final AtomicLong lastChunkEnd = new AtomicLong(Long.MIN_VALUE);
+
+    StepMetrics(long executionId, String jobName, String stepName) {
+        this.executionId = executionId;
+        this.jobName = jobName;
+        this.stepName = stepName;
+    }
+
+    public void chunkStarted(long now) {
+        firstChunkStart.compareAndSet(Long.MIN_VALUE, now);
+    }
+
+    public void chunkEnded(long now) {
+        lastChunkEnd.accumulateAndGet(now, Math::max);
+    }
+
+    /**
+     * Records a chunk that took {@code chunkNanos}, of which {@code commitNanos} after the write. A negative
+     * {@code commitNanos} means the chunk wrote nothing
+     */
+    public void recordChunk(long chunkNanos, long commitNanos) {
+        chunks.increment();
+        chunkLatency.record(chunkNanos);
+        if (commitNanos >= 0) {
+            commitLatency.record(commitNanos);
+        }
+    }
+
+    /**
+     * Records the size of a chunk and the size the checkpoint algorithm chose for the next one
+     */
+    public void recordChunkSize(int items, int next) {
+        minChunkSize.accumulateAndGet(items, Math::min);
+        maxChunkSize.accumulateAndGet(items, Math::max);
+        nextChunkSize.set(next);
+    }
+
+    public void recordRead(long nanos, boolean item) {
+        readNanos.add(nanos);
+        if (item) {
+            itemsRead.increment();
+        }
+    }
+
+    public void recordProcess(long nanos) {
+        processNanos.add(nanos);
+        itemsProcessed.increment();
+    }
+
+    public void recordWrite(long nanos, int items) {
+        writeNanos.add(nanos);
+        itemsWritten.add(items);
+    }
+
+    public void recordReadSkip() {
+        readSkips.increment();
+    }
+
+    public void recordProcessSkip() {
+        processSkips.increment();
+    }
+
+    public void recordWriteSkips(int items) {
+        writeSkips.add(items);
+    }
+
+    public void recordReadRetry() {
+        readRetries.increment();
+    }
+
+    public void recordProcessRetry() {
+        processRetries.increment();
+    }
+
+    public void recordWriteRetry() {
+        writeRetries.increment();
+    }
+
+    public StepMetricsSnapshot snapshot() {
+        long start = firstChunkStart.get();
+        long end = lastChunkEnd.get();
+        double itemsPerSecond = start != Long.MIN_VALUE && end != Long.MIN_VALUE && end > start ? itemsWritten.sum() * 1e9 / (end - start) : 0;
+        return new StepMetricsSnapshot(executionId, jobName, stepName, itemsRead.sum(), itemsProcessed.sum(), itemsWritten.sum(),
+            chunks.sum(), readNanos.sum() / 1000000, processNanos.sum() / 1000000, writeNanos.sum() / 1000000, itemsPerSecond,
+            readSkips.sum(), processSkips.sum(), writeSkips.sum(), readRetries.sum(), processRetries.sum(), writeRetries.sum(),
+            chunkLatency.getCounts(), commitLatency.getCounts(), maxChunkSize.get() == 0 ? 0 : minChunkSize.get(), maxChunkSize.get(),
+            nextChunkSize.get());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.metrics;
+
+import java.util.Map;
+
+//This class holds the metrics of a step of a job execution at a point in time. It is exposed over JMX and REST
+public class StepMetricsSnapshot {
+
+    private final long executionId;
+
+    private final String jobName;
+
+    private final String stepName;
+
+    private final long itemsRead;
+
+    private final long itemsProcessed;
+
+    private final long itemsWritten;
+
+    private final long chunks;
+
+    private final long readTimeMillis;
+
+    private final long processTimeMillis;
+
+    private final long writeTimeMillis;
+
+    private final double itemsPerSecond;
+
+    private final long readSkips;
+
+    private final long processSkips;
+
+    private final long writeSkips;
+
+    private final long readRetries;
+
+    private final long processRetries;
+
+    private final long writeRetries;
+
+    private final Map<String, Long> chunkLatency;
+
+    private final Map<String, Long> commitLatency;
+
+    // Zero unless the step uses a checkpoint algorithm that reports its chunk sizes
+    private final int minChunkSize;
+
+    private final int maxChunkSize;
+
+    private final int nextChunkSize;
+
+    public StepMetricsSnapshot(long executionId, String jobName, String stepName, long itemsRead, long itemsProcessed, long itemsWritten,
+        long chunks, long readTimeMillis, long processTimeMillis, long writeTimeMillis, double itemsPerSecond, long readSkips,
+        long processSkips, long writeSkips, long readRetries, long processRetries, long writeRetries, Map<String, Long> chunkLatency,
+        Map<String, Long> commitLatency, int minChunkSize, int maxChunkSize, int nextChunkSize) {
+        this.executionId = executionId;
+        this.jobName = jobName;
+        this.stepName = stepName;
+        this.itemsRead = itemsRead;
+        this.itemsProcessed = itemsProcessed;
+        this.itemsWritten = itemsWritten;
+        this.chunks = chunks;
+        this.readTimeMillis = readTimeMillis;
+        this.processTimeMillis = processTimeMillis;
+        this.writeTimeMillis = writeTimeMillis;
+        this.itemsPerSecond = itemsPerSecond;
+        this.readSkips = readSkips;
+        this.processSkips = processSkips;
+        this.writeSkips = writeSkips;
+        this.readRetries = readRetries;
+        this.processRetries = processRetries;
+        this.writeRetries = writeRetries;
+        this.chunkLatency = chunkLatency;
+        this.commitLatency = commitLatency;
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.nextChunkSize = nextChunkSize;
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public long getItemsRead() {
+        return itemsRead;
+    }
+
+    public long getItemsProcessed() {
+        return itemsProcessed;
+    }
+
+    public long getItemsWritten() {
+        return itemsWritten;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getReadTimeMillis() {
+        return readTimeMillis;
+    }
+
+    public long getProcessTimeMillis() {
+        return processTimeMillis;
+    }
+
+    public long getWriteTimeMillis() {
+        return writeTimeMillis;
+    }
+
+    public double getItemsPerSecond() {
+        return itemsPerSecond;
+    }
+
+    public long getReadSkips() {
+        return readSkips;
+    }
+
+    public long getProcessSkips() {
+        return processSkips;
+    }
+
+    public long getWriteSkips() {
+        return writeSkips;
+    }
+
+    public long getReadRetries() {
+        return readRetries;
+    }
+
+    public long getProcessRetries() {
+        return processRetries;
+    }
+
+    public long getWriteRetries() {
+        return writeRetries;
+    }
+
+    public Map<String, Long> getChunkLatency() {
+        return chunkLatency;
+    }
+
+    public Map<String, Long> getCommitLatency() {
+        return commitLatency;
+    }
+
+    public int getMinChunkSize() {
+        return minChunkSize;
+    }
+
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public int getNextChunkSize() {
+        return nextChunkSize;
+    }
+}
@@ -34,6 +34,9 @@ public class Contact {
     @NotNull
     private String phone;
 
+    // Hash of the imported name and phone. Incremental imports use it to skip unchanged contacts
+    private Long contentHash;
+
     public Integer getId() {
         return id;
     }
@@ -58,6 +61,14 @@ public class Contact {
         this.phone = phone;
     }
 
+    public Long getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(Long contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String toString() {
         return "Contact [id=" + id + ", name=" + name + ", phone=" + phone + "]";
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.rest;
+
+import java.util.List;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.jboss.as.quickstarts.batch.job.metrics.BatchMetrics;
+import org.jboss.as.quickstarts.batch.job.metrics.StepMetricsSnapshot;
+
+/**
+ * JAX-RS Example
+ * <p/>
+ * This class produces a RESTful service to read and reset the metrics recorded by the metricsListener.
+ */
+@Path("/metrics")
+@RequestScoped
+public class BatchMetricsResource {
+
+    @Inject
+    private BatchMetrics batchMetrics;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<StepMetricsSnapshot> listSteps() {
+        return batchMetrics.getSteps();
+    }
+
+    @GET
+    @Path("/{executionId}/{stepName}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public StepMetricsSnapshot lookupStep(@PathParam("executionId") long executionId, @PathParam("stepName") String stepName) {
+        StepMetricsSnapshot snapshot = batchMetrics.getSnapshot(executionId, stepName);
+        if (snapshot == null) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+        return snapshot;
+    }
+
+    @DELETE
+    public void reset() {
+        batchMetrics.reset();
+    }
+}
@@ -19,6 +19,7 @@ package org.jboss.as.quickstarts.batch.util;
 import java.util.TimeZone;
 import java.util.logging.Logger;
 
+import javax.annotation.Resource;
 import javax.enterprise.context.RequestScoped;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
@@ -26,6 +27,7 @@ import javax.faces.context.FacesContext;
 import javax.inject.Named;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
 
 /**
  * This class uses CDI to alias Java EE resources, such as the persistence context, to CDI beans
@@ -45,6 +47,10 @@ public class Resources {
     @PersistenceContext
     private EntityManager em;
 
+    @Produces
+    @Resource(lookup = "java:jboss/datasources/batch-processingDS")
+    private DataSource dataSource;
+
     @Produces
     public Logger produceLog(InjectionPoint injectionPoint) {
         return Logger.getLogger(injectionPoint.getMember().getDeclaringClass().getName());
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class BatchControllerTest {
+
+    // 50 job instances, so 3 pages of 20
+    private final JobHistory jobHistory = new JobHistory() {
+
+        @Override
+        public JobHistoryPage getPage(int page, int size) {
+            return new JobHistoryPage(Collections.<JobData> emptyList(), page, size, 50);
+        }
+    };
+
+    // Kept between the requests of the same view
+    private final JobHistoryPager pager = new JobHistoryPager();
+
+    // A new controller for every request, like the request-scoped bean
+    private BatchController request() throws Exception {
+        BatchController controller = new BatchController();
+        inject(controller, "jobHistory", jobHistory);
+        inject(controller, "pager", pager);
+        return controller;
+    }
+
+    private static void inject(Object bean, String fieldName, Object value) throws Exception {
+        Field field = bean.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(bean, value);
+    }
+
+    @Test
+    public void testClickThroughPages() throws Exception {
+        BatchController controller = request();
+        assertEquals(0, controller.getJobsPage().getPage());
+        assertFalse(controller.getJobsPage().isHasPrevious());
+
+        // Older jobs: the button is rendered when the request is decoded, then the next page is rendered
+        controller = request();
+        assertTrue(controller.getJobsPage().isHasNext());
+        controller.nextPage();
+        assertEquals(1, controller.getJobsPage().getPage());
+
+        // Newer jobs: the request starts on page 1, so the button is decoded and its action runs
+        controller = request();
+        assertTrue(controller.getJobsPage().isHasPrevious());
+        controller.previousPage();
+        assertEquals(0, controller.getJobsPage().getPage());
+        assertFalse(controller.getJobsPage().isHasPrevious());
+
+        // Update jobs list stays on the same page
+        controller = request();
+        assertEquals(0, controller.getJobsPage().getPage());
+    }
+
+}
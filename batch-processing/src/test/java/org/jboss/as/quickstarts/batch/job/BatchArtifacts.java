@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class sets up the batch artifacts the way the container would, by setting their injected fields, and writes the files
+//they read. The files are created in the temporary directory, as the file names of the jobs are relative to it
+final class BatchArtifacts {
+
+    private BatchArtifacts() {
+    }
+
+    static <T> T inject(T artifact, String fieldName, Object value) throws Exception {
+        Field field = artifact.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(artifact, value);
+        return artifact;
+    }
+
+    static Logger logger(Class<?> type) {
+        return Logger.getLogger(type.getName());
+    }
+
+    // Writes the records with the given ids, compressed when the suffix ends with .gz. The names have different lengths, so
+    // the records are not aligned
+    static File writeRecords(String suffix, int... ids) throws IOException {
+        File file = File.createTempFile("contacts", suffix);
+        file.deleteOnExit();
+        StringBuilder records = new StringBuilder();
+        for (int id : ids) {
+            records.append(id).append('|').append(name(id)).append('|').append(100000000 + id).append('\n');
+        }
+        try (OutputStream out = suffix.endsWith(".gz") ? new GZIPOutputStream(Files.newOutputStream(file.toPath()))
+            : Files.newOutputStream(file.toPath())) {
+            out.write(records.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    static int[] range(int first, int last) {
+        int[] ids = new int[last - first + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = first + i;
+        }
+        return ids;
+    }
+
+    static String name(int id) {
+        StringBuilder name = new StringBuilder("Contact");
+        for (int i = 0; i < id % 7; i++) {
+            name.append('x');
+        }
+        return name.append(id).toString();
+    }
+
+    static RecordsReader reader(File file, String startOffset, String endOffset) throws Exception {
+        RecordsReader reader = new RecordsReader();
+        inject(reader, "separatorRegex", "[|]");
+        inject(reader, "fileName", file.getName());
+        inject(reader, "startOffset", startOffset);
+        inject(reader, "endOffset", endOffset);
+        inject(reader, "log", logger(RecordsReader.class));
+        return reader;
+    }
+
+    // Reads the ids of the records until the end of the reader's range
+    static List<Integer> readIds(RecordsReader reader) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        Contact contact;
+        while ((contact = reader.readItem()) != null) {
+            ids.add(contact.getId());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.inject;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.junit.Test;
+
+public class ContactNameIndexTest {
+
+    // The queries run by the index
+    private final List<String> queries = new ArrayList<>();
+
+    // Returns the given (name, id) rows to any query, like a table holding these contacts
+    private ContactNameIndex index(Object[]... rows) throws Exception {
+        TypedQuery<?> query = (TypedQuery<?>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TypedQuery.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("getResultList")) {
+                    List<Object[]> result = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        result.add(row);
+                    }
+                    return result;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManager.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("createQuery")) {
+                    synchronized (queries) {
+                        queries.add((String) args[0]);
+                    }
+                    return query;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        ContactNameIndex index = new ContactNameIndex();
+        inject(index, "entityManager", entityManager);
+        inject(index, "log", BatchArtifacts.logger(ContactNameIndex.class));
+        return index;
+    }
+
+    private static Contact contact(int id, String name) {
+        Contact contact = new Contact();
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhone("123456789");
+        return contact;
+    }
+
+    private static void assertDuplicate(ContactNameIndex index, long executionId, String importMode, Contact contact) {
+        try {
+            index.register(executionId, importMode, contact);
+            fail("Expected " + contact + " to be a duplicate");
+        } catch (DuplicateContactException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testStagedNamesAreChecked() throws Exception {
+        ContactNameIndex index = index(new Object[] { "Alice", 1 });
+        // A partition of a restarted staging import sends a contact that was already staged
+        index.register(1, "staging", contact(1, "Alice"));
+        assertDuplicate(index, 1, "staging", contact(2, "Alice"));
+        assertEquals(1, queries.size());
+        assertEquals("SELECT c.name, c.id FROM ContactStaging c", queries.get(0));
+    }
+
+    @Test
+    public void testDuplicatesInTheImportedFile() throws Exception {
+        ContactNameIndex index = index();
+        index.register(1, "replace", contact(1, "Bob"));
+        index.register(1, "replace", contact(2, "Carol"));
+        assertDuplicate(index, 1, "replace", contact(3, "Bob"));
+        assertEquals("SELECT c.name, c.id FROM Contact c", queries.get(0));
+    }
+
+    @Test
+    public void testExecutionsHaveTheirOwnIndex() throws Exception {
+        ContactNameIndex index = index();
+        index.register(1, "staging", contact(1, "Bob"));
+        index.register(2, "staging", contact(2, "Bob"));
+        index.release(1);
+        // Loaded again from the table, which is empty here
+        index.register(1, "staging", contact(3, "Bob"));
+        assertEquals(3, queries.size());
+    }
+
+    @Test
+    public void testRenamedContactReleasesItsName() throws Exception {
+        ContactNameIndex index = index(new Object[] { "Alice", 1 });
+        index.register(1, "incremental", contact(1, "Alicia"));
+        // The file gives the previous name of contact #1 to a new contact
+        index.register(1, "incremental", contact(2, "Alice"));
+        assertDuplicate(index, 1, "incremental", contact(3, "Alicia"));
+    }
+
+    @Test
+    public void testRolledBackChunkIsUndone() throws Exception {
+        ContactNameIndex index = index(new Object[] { "Alice", 1 });
+        index.clearChunk();
+        index.register(1, "incremental", contact(1, "Alicia"));
+        index.register(1, "incremental", contact(2, "Bob"));
+        index.rollbackChunk();
+        // The chunk is processed again, its contacts are not duplicates of themselves
+        index.register(1, "incremental", contact(2, "Bob"));
+        // Contact #1 still has its previous name in the table
+        assertDuplicate(index, 1, "incremental", contact(3, "Alice"));
+        index.register(1, "incremental", contact(3, "Alicia"));
+        index.clearChunk();
+        index.rollbackChunk();
+        // Nothing to undo once the chunk is committed
+        assertDuplicate(index, 1, "incremental", contact(4, "Alicia"));
+    }
+
+    @Test
+    public void testConcurrentPartitionsFindOneOwner() throws Exception {
+        ContactNameIndex index = index();
+        int partitions = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                Contact contact = contact(i, "Dave");
+                tasks.add(() -> {
+                    try {
+                        index.register(1, "staging", contact);
+                        return true;
+                    } catch (DuplicateContactException e) {
+                        return false;
+                    }
+                });
+            }
+            int registered = 0;
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    registered++;
+                }
+            }
+            assertEquals(1, registered);
+            assertEquals(1, queries.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.inject;
+import static org.junit.Assert.assertEquals;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+
+import javax.batch.runtime.context.StepContext;
+
+import org.junit.Test;
+
+public class ContactsPartitionCollectorTest {
+
+    // The persistent user data of the partition, restored from the last checkpoint on a restart
+    private Serializable persistentUserData;
+
+    private ContactsPartitionCollector collector() throws Exception {
+        StepContext stepContext = (StepContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { StepContext.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("getPersistentUserData")) {
+                    return persistentUserData;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        ContactsPartitionCollector collector = new ContactsPartitionCollector();
+        inject(collector, "stepContext", stepContext);
+        collector.init();
+        return collector;
+    }
+
+    private static ImportCounts inserted(long inserted) {
+        ImportCounts counts = new ImportCounts();
+        counts.addInserted(inserted);
+        return counts;
+    }
+
+    @Test
+    public void testEveryChunkIsSentOnce() throws Exception {
+        ContactsPartitionCollector collector = collector();
+        assertEquals(0, ((ImportCounts) collector.collectPartitionData()).getInserted());
+        persistentUserData = inserted(10);
+        assertEquals(10, ((ImportCounts) collector.collectPartitionData()).getInserted());
+        persistentUserData = inserted(25);
+        assertEquals(15, ((ImportCounts) collector.collectPartitionData()).getInserted());
+    }
+
+    @Test
+    public void testRestartOnlySendsNewChunks() throws Exception {
+        // The analyzer merged the first 100 contacts before the failure
+        persistentUserData = inserted(100);
+        ContactsPartitionCollector collector = collector();
+        // The persister restores its counters with the checkpoint and adds the next chunk
+        persistentUserData = inserted(120);
+        assertEquals(20, ((ImportCounts) collector.collectPartitionData()).getInserted());
+    }
+
+}
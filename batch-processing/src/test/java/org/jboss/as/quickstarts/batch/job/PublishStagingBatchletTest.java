@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.inject;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.batch.runtime.context.JobContext;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import org.junit.Test;
+
+public class PublishStagingBatchletTest {
+
+    // The statements run by the batchlet
+    private final List<String> statements = new ArrayList<>();
+
+    private String exitStatus;
+
+    // The duplicate check returns the given (name, count) rows, and every update changes one row
+    private PublishStagingBatchlet batchlet(String importMode, Object[]... duplicates) throws Exception {
+        Object query = Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TypedQuery.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "setMaxResults":
+                        return proxy;
+                    case "getResultList":
+                        List<Object[]> rows = new ArrayList<>();
+                        for (Object[] row : duplicates) {
+                            rows.add(row);
+                        }
+                        return rows;
+                    case "executeUpdate":
+                        return 1;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        EntityManager entityManager = (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManager.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("createQuery") || method.getName().equals("createNativeQuery")) {
+                    statements.add((String) args[0]);
+                    return query;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        JobContext jobContext = (JobContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { JobContext.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("setExitStatus")) {
+                    exitStatus = (String) args[0];
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        PublishStagingBatchlet batchlet = new PublishStagingBatchlet();
+        inject(batchlet, "entityManager", entityManager);
+        inject(batchlet, "jobContext", jobContext);
+        inject(batchlet, "log", BatchArtifacts.logger(PublishStagingBatchlet.class));
+        inject(batchlet, "importMode", importMode);
+        return batchlet;
+    }
+
+    @Test
+    public void testDuplicateStagedNamesAreNotPublished() throws Exception {
+        PublishStagingBatchlet batchlet = batchlet("staging", new Object[] { "Alice", 2L }, new Object[] { "Bob", 3L });
+        try {
+            batchlet.process();
+            fail("Duplicate names must fail the step");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Alice (2 times)"));
+        }
+        assertTrue(exitStatus, exitStatus.contains("Bob (3 times)"));
+        // Only the duplicate check ran, the contacts were not replaced
+        assertEquals(1, statements.size());
+    }
+
+    @Test
+    public void testUniqueStagedNamesArePublished() throws Exception {
+        assertEquals("PUBLISHED", batchlet("staging").process());
+        assertEquals(4, statements.size());
+        assertEquals("DELETE FROM Contact c", statements.get(1));
+        assertEquals("DELETE FROM ContactStaging s", statements.get(3));
+    }
+
+    @Test
+    public void testOtherImportModesAreSkipped() throws Exception {
+        assertEquals("SKIPPED", batchlet("replace").process());
+        assertEquals(0, statements.size());
+    }
+
+}
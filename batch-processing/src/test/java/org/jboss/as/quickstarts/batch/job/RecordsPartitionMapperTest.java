@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.inject;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.range;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.readIds;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.reader;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.writeRecords;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.batch.api.partition.PartitionPlan;
+
+import org.junit.Test;
+
+public class RecordsPartitionMapperTest {
+
+    private PartitionPlan mapPartitions(File file, int partitions) throws Exception {
+        RecordsPartitionMapper mapper = new RecordsPartitionMapper();
+        inject(mapper, "fileName", file.getName());
+        inject(mapper, "partitions", String.valueOf(partitions));
+        inject(mapper, "log", BatchArtifacts.logger(RecordsPartitionMapper.class));
+        return mapper.mapPartitions();
+    }
+
+    private List<Integer> readPartitions(File file, PartitionPlan plan) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (Properties properties : plan.getPartitionProperties()) {
+            RecordsReader reader = reader(file, properties.getProperty("startOffset"), properties.getProperty("endOffset"));
+            reader.open(null);
+            try {
+                ids.addAll(readIds(reader));
+            } finally {
+                reader.close();
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    public void testPartitionsStartAtLineBoundaries() throws Exception {
+        File file = writeRecords(".txt", range(1, 1000));
+        PartitionPlan plan = mapPartitions(file, 4);
+        assertEquals(4, plan.getPartitions());
+        Properties[] partitions = plan.getPartitionProperties();
+        assertEquals("0", partitions[0].getProperty("startOffset"));
+        assertEquals(String.valueOf(file.length()), partitions[partitions.length - 1].getProperty("endOffset"));
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            for (int i = 1; i < partitions.length; i++) {
+                long start = Long.parseLong(partitions[i].getProperty("startOffset"));
+                assertEquals(partitions[i - 1].getProperty("endOffset"), partitions[i].getProperty("startOffset"));
+                in.seek(start - 1);
+                assertEquals("Partition " + i + " must start after a line end", '\n', in.read());
+            }
+        }
+    }
+
+    @Test
+    public void testPartitionsReadEveryRecordOnce() throws Exception {
+        File file = writeRecords(".txt", range(1, 1000));
+        List<Integer> expected = new ArrayList<>();
+        for (int id : range(1, 1000)) {
+            expected.add(id);
+        }
+        // A prime number of partitions, so the boundaries fall inside the records
+        assertEquals(expected, readPartitions(file, mapPartitions(file, 7)));
+    }
+
+    @Test
+    public void testSmallFileHasLessPartitions() throws Exception {
+        File file = writeRecords(".txt", 1, 2);
+        PartitionPlan plan = mapPartitions(file, 8);
+        assertTrue(plan.getPartitions() <= 2);
+        List<Integer> expected = new ArrayList<>();
+        expected.add(1);
+        expected.add(2);
+        assertEquals(expected, readPartitions(file, plan));
+    }
+
+    @Test
+    public void testCompressedFileHasOnePartition() throws Exception {
+        File file = writeRecords(".txt.gz", range(1, 10));
+        PartitionPlan plan = mapPartitions(file, 4);
+        assertEquals(1, plan.getPartitions());
+        assertEquals(String.valueOf(Long.MAX_VALUE), plan.getPartitionProperties()[0].getProperty("endOffset"));
+    }
+
+}
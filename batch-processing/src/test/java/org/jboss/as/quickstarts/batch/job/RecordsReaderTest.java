@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.range;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.readIds;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.reader;
+import static org.jboss.as.quickstarts.batch.job.BatchArtifacts.writeRecords;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RecordsReaderTest {
+
+    private static List<Integer> ids(int first, int last) {
+        List<Integer> ids = new ArrayList<>();
+        for (int id : range(first, last)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    // Reads some records and returns a copy of the checkpoint, as stored by the job repository
+    private static ChunkCheckpoint readAndCheckpoint(RecordsReader reader, int records) throws Exception {
+        for (int i = 0; i < records; i++) {
+            reader.readItem();
+        }
+        return new ChunkCheckpoint((ChunkCheckpoint) reader.checkpointInfo());
+    }
+
+    private static List<Integer> restart(RecordsReader reader, ChunkCheckpoint checkpoint) throws Exception {
+        reader.open(checkpoint);
+        try {
+            return readIds(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testRestartSeeksToCheckpoint() throws Exception {
+        File file = writeRecords(".txt", range(1, 100));
+        RecordsReader reader = reader(file, null, null);
+        reader.open(null);
+        ChunkCheckpoint checkpoint = readAndCheckpoint(reader, 30);
+        // Records read after the checkpoint are rolled back with the chunk
+        reader.readItem();
+        reader.close();
+        assertEquals(30, checkpoint.getLineNumber());
+        assertEquals(ids(31, 100), restart(reader(file, null, null), checkpoint));
+    }
+
+    @Test
+    public void testRestartFromLineNumberCheckpoint() throws Exception {
+        File file = writeRecords(".txt", range(1, 100));
+        // Checkpoints written before the byte offset was recorded
+        ChunkCheckpoint checkpoint = new ChunkCheckpoint();
+        for (int i = 0; i < 30; i++) {
+            checkpoint.increase(0);
+        }
+        assertEquals(ids(31, 100), restart(reader(file, null, null), checkpoint));
+    }
+
+    @Test
+    public void testRestartPartitionStaysInItsRange() throws Exception {
+        File file = writeRecords(".txt", range(1, 100));
+        // The range of the records 11 to 50, found by reading the file
+        RecordsReader full = reader(file, null, null);
+        full.open(null);
+        long start = readAndCheckpoint(full, 10).getOffset();
+        long end = readAndCheckpoint(full, 40).getOffset();
+        full.close();
+
+        RecordsReader reader = reader(file, String.valueOf(start), String.valueOf(end));
+        reader.open(null);
+        ChunkCheckpoint checkpoint = readAndCheckpoint(reader, 15);
+        reader.close();
+        assertEquals(ids(26, 50), restart(reader(file, String.valueOf(start), String.valueOf(end)), checkpoint));
+    }
+
+    @Test
+    public void testRestartCompressedFile() throws Exception {
+        File file = writeRecords(".txt.gz", range(1, 100));
+        RecordsReader reader = reader(file, null, null);
+        reader.open(null);
+        ChunkCheckpoint checkpoint = readAndCheckpoint(reader, 42);
+        reader.close();
+        // The decoded stream cannot seek, the reader skips to the decoded offset of the checkpoint
+        assertEquals(ids(43, 100), restart(reader(file, null, null), checkpoint));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class BatchMetricsTest {
+
+    // Not started, so the MBean is not registered
+    private final BatchMetrics batchMetrics = new BatchMetrics();
+
+    private void writeChunk(StepMetrics metrics, int items) {
+        metrics.chunkStarted(System.nanoTime());
+        metrics.recordWrite(1000, items);
+        metrics.chunkEnded(System.nanoTime());
+    }
+
+    @Test
+    public void testConcurrentExecutionsHaveTheirOwnCounters() {
+        StepMetrics first = batchMetrics.getStep(1, "import-file", "import-file-chunk");
+        StepMetrics second = batchMetrics.getStep(2, "import-file", "import-file-chunk");
+        assertNotSame(first, second);
+        // The partitions of an execution share the counters of the step
+        assertSame(first, batchMetrics.getStep(1, "import-file", "import-file-chunk"));
+        writeChunk(first, 10);
+        writeChunk(first, 10);
+        writeChunk(second, 3);
+        assertEquals(20, batchMetrics.getSnapshot(1, "import-file-chunk").getItemsWritten());
+        assertEquals(3, batchMetrics.getSnapshot(2, "import-file-chunk").getItemsWritten());
+        assertEquals(2, batchMetrics.getSteps().size());
+    }
+
+    @Test
+    public void testRestartStartsFromZero() {
+        writeChunk(batchMetrics.getStep(1, "import-file", "import-file-chunk"), 10);
+        batchMetrics.release(1);
+        // The restart is a new execution of the same job instance
+        writeChunk(batchMetrics.getStep(2, "import-file", "import-file-chunk"), 5);
+        assertEquals(5, batchMetrics.getSnapshot(2, "import-file-chunk").getItemsWritten());
+        assertEquals(10, batchMetrics.getSnapshot(1, "import-file-chunk").getItemsWritten());
+    }
+
+    @Test
+    public void testReleasedExecutionsKeepTheirLastSnapshots() {
+        StepMetrics metrics = batchMetrics.getStep(1, "import-file", "import-file-chunk");
+        writeChunk(metrics, 10);
+        batchMetrics.release(1);
+        // Late updates of a released execution are not seen
+        metrics.recordWrite(1000, 10);
+        assertEquals(10, batchMetrics.getSnapshot(1, "import-file-chunk").getItemsWritten());
+        for (int i = 2; i <= BatchMetrics.FINISHED_STEPS + 1; i++) {
+            batchMetrics.getStep(i, "import-file", "import-file-chunk");
+            batchMetrics.release(i);
+        }
+        assertNull(batchMetrics.getSnapshot(1, "import-file-chunk"));
+        assertEquals(BatchMetrics.FINISHED_STEPS, batchMetrics.getSteps().size());
+    }
+
+}
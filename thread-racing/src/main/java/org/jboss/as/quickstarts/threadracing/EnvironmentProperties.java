@@ -37,4 +37,9 @@ public interface EnvironmentProperties {
      * the app's root path, e.g. /thread-racing
      */
     String ROOT_PATH = "ROOT_PATH";
+
+    /**
+     * the number of pit stop requests each racer sends concurrently, e.g. 1
+     */
+    String PIT_STOPS = "PIT_STOPS";
 }
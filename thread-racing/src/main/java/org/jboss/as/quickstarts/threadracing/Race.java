@@ -16,32 +16,60 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
-import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
+import org.jboss.as.quickstarts.threadracing.results.Championship;
 import org.jboss.as.quickstarts.threadracing.results.RaceResult;
-import org.jboss.as.quickstarts.threadracing.results.RaceResults;
+import org.jboss.as.quickstarts.threadracing.results.RacerResult;
+import org.jboss.as.quickstarts.threadracing.stage.jaxrs.JAXRSRaceStage;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * The awesome Java EE thread race. It's the core of the app logic, but has no usage of Java EE technologies, thus of limited interest to study.
  *
+ * Any number of racers may run a race. The racers are synced, for the race start and end, through {@link java.util.concurrent.Phaser}s, which are tiered so that each phaser only has a few hundred parties.
+ *
  * @author Eduardo Martins
  */
 public class Race {
 
     /**
-     * a barrier used to sync racers for the race start
+     * the max number of racers registered in each tier of the race's phasers
+     */
+    private static final int RACERS_PER_PHASER = 500;
+
+    /**
+     * the time racers have to finish the race, besides the time added for each racer's pit stops
+     */
+    private static final long END_TIMEOUT_MILLIS = 90000;
+
+    /**
+     * the time added to the race end's timeout for each pit stop of each racer, since racers share the app's threads and connections
+     */
+    private static final long PIT_STOP_END_TIMEOUT_MILLIS = 100;
+
+    /**
+     * the max number of championship standings entries broadcast after the race, the standings grow with every racer ever run
      */
-    private CyclicBarrier startBarrier;
+    private static final int MAX_BROADCAST_STANDINGS = 10;
 
     /**
-     * a count down latch used by the race to know when all racers finished/aborted
+     * the root phaser used to sync racers for the race start, the race itself is its only direct party
      */
-    private CountDownLatch endCountDownLatch;
+    private Phaser startPhaser;
+
+    /**
+     * the root phaser used by the race to know when all racers finished/aborted, the race itself is its only direct party
+     */
+    private Phaser endPhaser;
 
     /**
      * provides the positions to racer's who finish the race, the initial value is the first position, which increments on a racer finish
@@ -54,9 +82,9 @@ public class Race {
     private AtomicInteger abortedPosition;
 
     /**
-     * the race result
+     * the racer's registrations, indexed by race position - 1
      */
-    private RaceResult result;
+    private AtomicReferenceArray<Registration> positions;
 
     /**
      * the race's environment
@@ -69,55 +97,52 @@ public class Race {
     private final RaceBroadcaster broadcaster;
 
     /**
-     * the past race results
+     * the championship, which the race result is added to
      */
-    private final RaceResults results;
+    private final Championship championship;
 
     /**
-     * the racer #1
+     * the racers
      */
-    private final Racer racer1;
+    private final List<Racer> racers;
 
     /**
-     * the racer #2
+     * the executor where racers run, if null each racer runs in its own managed thread
      */
-    private final Racer racer2;
+    private final Executor engine;
 
     /**
-     * the racer #3
-     */
-    private final Racer racer3;
-
-    /**
-     * the racer #4
+     * Creates a new race with the specified racers and environment, where each racer runs in its own managed thread.
+     * @param racers
+     * @param environment
+     * @param broadcaster the broadcaster that will be used to update fans about the race progress.
+     * @param championship the championship
      */
-    private final Racer racer4;
+    public Race(List<Racer> racers, Map<String, String> environment, RaceBroadcaster broadcaster, Championship championship) {
+        this(racers, null, environment, broadcaster, championship);
+    }
 
     /**
-     * Creates a new race with the specified racers and environment.
-     * @param racer1
-     * @param racer2
-     * @param racer3
-     * @param racer4
+     * Creates a new race with the specified racers, engine and environment.
+     * @param racers
+     * @param engine the executor where racers run, if null each racer runs in its own managed thread
      * @param environment
      * @param broadcaster the broadcaster that will be used to update fans about the race progress.
-     * @param results the race results
+     * @param championship the championship
      */
-    public Race(Racer racer1, Racer racer2, Racer racer3, Racer racer4, Map<String, String> environment, RaceBroadcaster broadcaster, RaceResults results) {
-        this.racer1 = racer1;
-        this.racer2 = racer2;
-        this.racer3 = racer3;
-        this.racer4 = racer4;
+    public Race(List<Racer> racers, Executor engine, Map<String, String> environment, RaceBroadcaster broadcaster, Championship championship) {
+        this.racers = new ArrayList<>(racers);
+        this.engine = engine;
         this.environment = environment;
         this.broadcaster = broadcaster;
-        this.results = results;
+        this.championship = championship;
     }
 
     /**
-     * Starts the race.
-     * @throws Exception if there is an unexpected issue with the race, such as racers taking too long being ready to start, or not finishing the race in time.
+     * Starts the race. A race instance is meant to be run once, by a single thread.
+     * @throws Exception if there is an unexpected issue with the race, such as racers taking too long being ready to start, or not finishing the race in time, in which case the race has no result.
      */
-    public synchronized void run() throws Exception {
+    public void run() throws Exception {
         reset();
         broadcaster.start();
         registerRacers();
@@ -131,59 +156,82 @@ public class Race {
      * Resets the race state.
      */
     private void reset() {
-        startBarrier = new CyclicBarrier(5);
-        endCountDownLatch = new CountDownLatch(4);
+        startPhaser = new Phaser(1);
+        endPhaser = new Phaser(1);
         donePosition = new AtomicInteger(1);
-        abortedPosition = new AtomicInteger(4);
-        result = new RaceResult();
+        abortedPosition = new AtomicInteger(racers.size());
+        positions = new AtomicReferenceArray<>(racers.size());
     }
 
     /**
-     * Registers all racers.
+     * Registers all racers. Racers are ready when their thread starts, and wait for the race start, so an executor where racers run must have a thread for each racer.
      */
     private void registerRacers() {
-        racer1.setRegistration(new Registration(racer1, 1));
-        racer2.setRegistration(new Registration(racer2, 2));
-        racer3.setRegistration(new Registration(racer3, 3));
-        racer4.setRegistration(new Registration(racer4, 4));
+        Phaser startTier = null;
+        Phaser endTier = null;
+        for (int i = 0; i < racers.size(); i++) {
+            if (i % RACERS_PER_PHASER == 0) {
+                startTier = new Phaser(startPhaser);
+                endTier = new Phaser(endPhaser);
+            }
+            final Racer racer = racers.get(i);
+            racer.setRegistration(new Registration(racer, i + 1, startTier, endTier));
+        }
     }
 
     /**
-     * Starts racer's engines.
+     * Starts racer's engines, in managed threads or in the race's executor.
      */
     private void startEngines() {
         broadcaster.startYourEngines();
-        racer1.startEngine();
-        racer2.startEngine();
-        racer3.startEngine();
-        racer4.startEngine();
+        for (Racer racer : racers) {
+            racer.startEngine(engine);
+        }
     }
 
     /**
-     * Starts the race. Note that the race only starts when all racers are ready, i.e. all waiting at the start barrier, and for that to happen there is a 30 seconds timeout.
+     * Starts the race. Note that the race only starts when all racers are ready, i.e. all waiting at the start phaser, and for that to happen there is a 30 seconds timeout.
      * @throws Exception if the race start has expired
      */
     private void startRace() throws Exception {
         broadcaster.readySetGo();
-        startBarrier.await(30, TimeUnit.SECONDS);
+        startPhaser.awaitAdvanceInterruptibly(startPhaser.arrive(), 30, TimeUnit.SECONDS);
     }
 
     /**
-     * Awaits the race to finish. If the race is still in progress this method will block and wait for the race to end. The wait has a timeout of 90 seconds.
-     * @throws Exception if the race end has expired.
+     * Awaits the race to finish. If the race is still in progress this method will block and wait for the race to end. The wait has a timeout of 90 seconds, plus 100 milliseconds for each pit stop of each racer. A race which times out is reported to the spectators, and has no result.
+     * @throws TimeoutException if the race end has expired.
+     * @throws Exception if the wait is interrupted.
      */
     private void awaitEnd() throws Exception {
-        endCountDownLatch.await(90, TimeUnit.SECONDS);
+        final long timeout = END_TIMEOUT_MILLIS + racers.size() * JAXRSRaceStage.getPitStops(environment) * PIT_STOP_END_TIMEOUT_MILLIS;
+        try {
+            endPhaser.awaitAdvanceInterruptibly(endPhaser.arrive(), timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            final int running = abortedPosition.get() - donePosition.get() + 1;
+            broadcaster.raceProgress("Red flag! The race timed out after " + (timeout / 1000) + " seconds, with " + running + " racers still running. There is no result for this race.");
+            throw new TimeoutException("Race timed out after " + timeout + " ms, with " + running + " of " + racers.size() + " racers still running");
+        }
         broadcaster.raceEnd();
     }
 
     /**
-     * Process the race result.
+     * Process the race result, with the position and stage durations of each racer.
      */
     private void processResult() {
-        results.add(result);
-        broadcaster.raceResult(result);
-        broadcaster.championshipStandings(new ChampionshipStandings().addAll(results).getEntryList());
+        final List<String> sortedRacers = new ArrayList<>();
+        final RaceResult result = new RaceResult();
+        for (int i = 0; i < positions.length(); i++) {
+            final Registration registration = positions.get(i);
+            sortedRacers.add(registration.racer.getName());
+            final RacerResult racerResult = result.addRacerResult(registration.racer.getName(), i + 1);
+            for (Map.Entry<String, Long> stageDuration : registration.stageDurations.entrySet()) {
+                racerResult.addStageResult(stageDuration.getKey(), stageDuration.getValue());
+            }
+        }
+        broadcaster.raceResult(sortedRacers);
+        championship.add(result);
+        broadcaster.championshipStandings(championship.getEntryList(MAX_BROADCAST_STANDINGS));
     }
 
     /**
@@ -198,13 +246,34 @@ public class Race {
          */
         private final Racer racer;
 
+        /**
+         * the phaser where the racer awaits the race start, null if the racer only starts after the race start
+         */
+        private final Phaser startTier;
+
+        /**
+         * the phaser where the racer arrives when it finishes or aborts the race
+         */
+        private final Phaser endTier;
+
+        /**
+         * the duration, in milliseconds, of each stage completed by the racer
+         */
+        private final Map<String, Long> stageDurations = new LinkedHashMap<>();
+
         /**
          *
          * @param racer
          */
-        private Registration(Racer racer, int number) {
+        private Registration(Racer racer, int number, Phaser startTier, Phaser endTier) {
             this.number = number;
             this.racer = racer;
+            this.startTier = startTier;
+            this.endTier = endTier;
+            if (startTier != null) {
+                startTier.register();
+            }
+            endTier.register();
             broadcast("joins the race.");
         }
 
@@ -213,7 +282,9 @@ public class Race {
          * @throws Exception
          */
         public void ready() throws Exception {
-            startBarrier.await(30, TimeUnit.SECONDS);
+            if (startTier != null) {
+                startTier.awaitAdvanceInterruptibly(startTier.arriveAndDeregister(), 30, TimeUnit.SECONDS);
+            }
         }
 
         /**
@@ -222,8 +293,18 @@ public class Race {
         public void done() {
             int racerPosition = donePosition.getAndIncrement();
             broadcast("finished the race.");
-            result.setPosition(this, racerPosition);
-            endCountDownLatch.countDown();
+            positions.set(racerPosition - 1, this);
+            endTier.arriveAndDeregister();
+        }
+
+        /**
+         * The racer has completed a race stage.
+         * @param stage the stage's name
+         * @param duration the stage's duration, in milliseconds
+         */
+        public void stageCompleted(String stage, long duration) {
+            stageDurations.put(stage, duration);
+            broadcast("completed the " + stage + " stage.");
         }
 
         /**
@@ -233,8 +314,8 @@ public class Race {
             int racerPosition = abortedPosition.getAndDecrement();
             t.printStackTrace();
             broadcast("aborted the race. Reason: " + (t != null ? t.getMessage() : "N/A)"));
-            result.setPosition(this, racerPosition);
-            endCountDownLatch.countDown();
+            positions.set(racerPosition - 1, this);
+            endTier.arriveAndDeregister();
         }
 
         /**
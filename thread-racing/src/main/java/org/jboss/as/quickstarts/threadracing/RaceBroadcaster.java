@@ -17,7 +17,6 @@
 package org.jboss.as.quickstarts.threadracing;
 
 import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
-import org.jboss.as.quickstarts.threadracing.results.RaceResult;
 
 import java.util.List;
 
@@ -56,9 +55,9 @@ public interface RaceBroadcaster {
 
     /**
      * Broadcasts the race's result.
-     * @param result
+     * @param sortedRacers the racer's names, ordered by race position
      */
-    void raceResult(RaceResult result);
+    void raceResult(List<String> sortedRacers);
 
     /**
      * Broadcasts the championship standings.
@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
+import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
+import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
+import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
+import org.jboss.as.quickstarts.threadracing.results.Championship;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.websocket.Session;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The race scheduler, which runs races in its own track threads, created by the default {@link javax.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, instead of the threads of the clients requesting them.
+ *
+ * Clients join a race by its id, and all clients of a race are its spectators. The first client to join a race which is not scheduled yet sets the race up, later clients only watch it. Several races run at once, up to a max, and further races wait for a free track.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class RaceScheduler {
+
+    /**
+     * the max number of races running at once, each one in a thread of the track executor
+     */
+    private static final int MAX_RUNNING_RACES = 4;
+
+    /**
+     * the engine where the racers of a race run in an executor, instead of each one in its own managed thread
+     */
+    public static final String EXECUTOR_ENGINE = "executor";
+
+    /**
+     * JNDI injection of the default managed thread factory, which creates the threads of the track and racer executors
+     */
+    @Resource
+    private ManagedThreadFactory threadFactory;
+
+    /**
+     * the executor where races run, a race blocks its thread until all racers finish, so races don't share the default managed executor service with other tasks
+     */
+    private ExecutorService trackExecutor;
+
+    /**
+     * CDI injection of racers, each race has its own racer instances
+     */
+    @Inject
+    private Instance<Racer> racerInstance;
+
+    /**
+     * CDI injection of the championship
+     */
+    @Inject
+    private Championship championship;
+
+    /**
+     * the scheduled races, by id
+     */
+    private final ConcurrentMap<String, ScheduledRace> races = new ConcurrentHashMap<>();
+
+    /**
+     * the races waiting for a free track
+     */
+    private final Queue<ScheduledRace> waitingRaces = new ArrayDeque<>();
+
+    /**
+     * the number of races running
+     */
+    private int runningRaces;
+
+    @PostConstruct
+    public void init() {
+        trackExecutor = Executors.newFixedThreadPool(MAX_RUNNING_RACES, threadFactory);
+    }
+
+    @PreDestroy
+    public void close() {
+        trackExecutor.shutdownNow();
+    }
+
+    /**
+     * Joins a client to a race, scheduling the race if needed.
+     * @param session the client's session
+     * @param raceId the race's id, if null the client gets a new race
+     * @param racerCount the number of racers, if the race is scheduled by this client
+     * @param engine {@link #EXECUTOR_ENGINE} to run the racers in an executor, otherwise each racer runs in its own managed thread
+     * @param environment the race's environment, if the race is scheduled by this client
+     */
+    public void join(Session session, String raceId, int racerCount, String engine, Map<String, String> environment) {
+        final String id = raceId != null ? raceId : UUID.randomUUID().toString();
+        while (true) {
+            final ScheduledRace race = races.computeIfAbsent(id, k -> new ScheduledRace(k, racerCount, engine, environment));
+            if (race.addSpectator(session)) {
+                if (race.schedule()) {
+                    schedule(race);
+                }
+                return;
+            }
+            // the race ended meanwhile, it will be removed
+            races.remove(id, race);
+        }
+    }
+
+    /**
+     * Runs the race if there is a free track, otherwise the race waits for one.
+     * @param race
+     */
+    private synchronized void schedule(ScheduledRace race) {
+        if (runningRaces < MAX_RUNNING_RACES) {
+            runningRaces++;
+            trackExecutor.execute(race);
+        } else {
+            race.broadcaster.raceProgress("All tracks are busy, the race starts once one is free.");
+            waitingRaces.add(race);
+        }
+    }
+
+    /**
+     * A race ended, the next waiting race, if any, takes its track.
+     */
+    private synchronized void raceEnded() {
+        final ScheduledRace next = waitingRaces.poll();
+        if (next != null) {
+            trackExecutor.execute(next);
+        } else {
+            runningRaces--;
+        }
+    }
+
+    /**
+     * A race scheduled by a client.
+     */
+    private class ScheduledRace implements Runnable {
+
+        private final String id;
+        private final int racerCount;
+        private final String engine;
+        private final Map<String, String> environment;
+
+        /**
+         * the broadcaster to all spectators
+         */
+        private final WebSocketRaceBroadcaster broadcaster = new WebSocketRaceBroadcaster();
+
+        /**
+         * if the race was scheduled
+         */
+        private boolean scheduled;
+
+        /**
+         * if the race ended, no more spectators may join
+         */
+        private boolean ended;
+
+        private ScheduledRace(String id, int racerCount, String engine, Map<String, String> environment) {
+            this.id = id;
+            this.racerCount = racerCount;
+            this.engine = engine;
+            this.environment = environment;
+        }
+
+        /**
+         * Adds a spectator.
+         * @param session
+         * @return false if the race ended
+         */
+        private synchronized boolean addSpectator(Session session) {
+            if (ended) {
+                return false;
+            }
+            broadcaster.addSpectator(session);
+            return true;
+        }
+
+        /**
+         * Marks the race as scheduled.
+         * @return true if the race was not scheduled yet
+         */
+        private synchronized boolean schedule() {
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        @Override
+        public void run() {
+            final List<Runnable> racerDestroyers = new ArrayList<>();
+            // a thread for each racer, as racers wait for each other at the race start. Racers block on tasks they submit to the default managed executor service, e.g. in the EE Concurrency stage, so they must not run there.
+            final ExecutorService racerExecutor = EXECUTOR_ENGINE.equals(engine) ? Executors.newFixedThreadPool(racerCount, threadFactory) : null;
+            try {
+                final List<Racer> racers = new ArrayList<>();
+                racers.add(newRacer(JimmieThronson.class, racerDestroyers));
+                racers.add(newRacer(MichaelThrumacher.class, racerDestroyers));
+                racers.add(newRacer(SebastienThroeb.class, racerDestroyers));
+                racers.add(newRacer(ValentinoThrossi.class, racerDestroyers));
+                while (racers.size() < racerCount) {
+                    racers.add(newRacer(Racer.class, racerDestroyers));
+                }
+                new Race(racers, racerExecutor, environment, broadcaster, championship).run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                if (racerExecutor != null) {
+                    racerExecutor.shutdownNow();
+                }
+                for (Runnable racerDestroyer : racerDestroyers) {
+                    racerDestroyer.run();
+                }
+                synchronized (this) {
+                    ended = true;
+                }
+                races.remove(id, this);
+                broadcaster.close();
+                raceEnded();
+            }
+        }
+    }
+
+    /**
+     * Creates a racer, which is destroyed once the race ends.
+     * @param type the racer's bean type
+     * @param racerDestroyers where the racer's destroyer is added
+     * @return
+     */
+    private <T extends Racer> T newRacer(Class<T> type, List<Runnable> racerDestroyers) {
+        final Instance<T> instance = racerInstance.select(type);
+        final T racer = instance.get();
+        racerDestroyers.add(() -> instance.destroy(racer));
+        return racer;
+    }
+}
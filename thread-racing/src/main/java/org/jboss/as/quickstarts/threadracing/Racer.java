@@ -16,6 +16,7 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
+import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.concurrency.EEConcurrencyRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.jaxrs.JAXRSRaceStage;
@@ -26,6 +27,7 @@ import javax.annotation.Resource;
 import javax.enterprise.concurrent.ManagedThreadFactory;
 import javax.inject.Inject;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 /**
  * A racer, a CDI bean injected with an instance of each race stage, which are also CDI beans.
@@ -117,9 +119,10 @@ public class Racer {
     }
 
     /**
-     * Starts the racer's engine a.k.a. as thread. The default {@link javax.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, is used to create the racer's thread.
+     * Starts the racer's engine a.k.a. as thread. If no executor is specified the default {@link javax.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, is used to create the racer's thread.
+     * @param engine the executor where the racer runs, e.g. a {@link javax.enterprise.concurrent.ManagedExecutorService}, or null to run in a new managed thread
      */
-    public void startEngine() {
+    public void startEngine(Executor engine) {
         final Runnable raceTask = new Runnable() {
             @Override
             public void run() {
@@ -135,7 +138,11 @@ public class Racer {
                 }
             }
         };
-        managedThreadFactory.newThread(raceTask).start();
+        if (engine != null) {
+            engine.execute(raceTask);
+        } else {
+            managedThreadFactory.newThread(raceTask).start();
+        }
     }
 
     /**
@@ -143,15 +150,22 @@ public class Racer {
      * @throws Exception
      */
     private void runRaceStages() throws Exception {
-        batchRaceStage.run(registration);
-        registration.broadcast("completed the Batch 1.0 stage.");
-        eeConcurrencyRaceStage.run(registration);
-        registration.broadcast("completed the EE Concurrency 1.0 stage.");
-        jaxrsRaceStageRen.run(registration);
-        registration.broadcast("completed the JAX-RS 2.0 stage.");
-        jmsRaceStage.run(registration);
-        registration.broadcast("completed the JMS 2.0 stage.");
-        jsonRaceStageRen.run(registration);
-        registration.broadcast("completed the JSON 1.0 stage.");
+        runRaceStage("Batch 1.0", batchRaceStage);
+        runRaceStage("EE Concurrency 1.0", eeConcurrencyRaceStage);
+        runRaceStage("JAX-RS 2.0", jaxrsRaceStageRen);
+        runRaceStage("JMS 2.0", jmsRaceStage);
+        runRaceStage("JSON 1.0", jsonRaceStageRen);
+    }
+
+    /**
+     * Runs a race stage, and reports its duration.
+     * @param name the stage's name
+     * @param raceStage
+     * @throws Exception
+     */
+    private void runRaceStage(String name, RaceStage raceStage) throws Exception {
+        final long start = System.currentTimeMillis();
+        raceStage.run(registration);
+        registration.stageCompleted(name, System.currentTimeMillis() - start);
     }
 }
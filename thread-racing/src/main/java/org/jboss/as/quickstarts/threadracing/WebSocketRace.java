@@ -16,12 +16,6 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
-import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
-import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
-import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
-import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
-import org.jboss.as.quickstarts.threadracing.results.RaceResults;
-
 import javax.inject.Inject;
 import javax.websocket.HandshakeResponse;
 import javax.websocket.OnOpen;
@@ -30,12 +24,15 @@ import javax.websocket.server.HandshakeRequest;
 import javax.websocket.server.ServerEndpointConfig;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * The app's entry point, a Web Socket {@link javax.websocket.server.ServerEndpoint}, which runs a race for each client connection established.
+ * The app's entry point, a Web Socket {@link javax.websocket.server.ServerEndpoint}, which joins each client connection established to a race.
+ *
+ * The server endpoint will update the client of the race progress and results, through text messages, and will close the session once the race ends. Races are run by the {@link RaceScheduler}, not in the thread of the Web Socket container, and clients which provide the same "race" parameter, e.g. /race?race=monza, watch the same race.
  *
- * The server endpoint will update the client of the race progress and results, through text messages, and will close the session once the race ends.
+ * The race has the 4 legends as racers, unless the client requests more racers with the "racers" parameter, e.g. /race?racers=1000. By default each racer runs in its own managed thread, the "engine" parameter set to "executor" runs the racers in an executor with a thread for each racer instead. The "pitStops" parameter sets the number of concurrent requests each racer sends in the JAX-RS 2.0 stage.
  *
  * @author Eduardo Martins
  */
@@ -45,46 +42,29 @@ public class WebSocketRace {
     public static final String PATH = "/race";
 
     /**
-     * CDI injection of racer #1
-     */
-    @Inject
-    private JimmieThronson racer1;
-
-    /**
-     * CDI injection of racer #2
-     */
-    @Inject
-    private MichaelThrumacher racer2;
-
-    /**
-     * CDI injection of racer #3
-     */
-    @Inject
-    private SebastienThroeb racer3;
-
-    /**
-     * CDI injection of racer #4
+     * the max number of racers in a race, each racer has its own thread whatever the engine
      */
-    @Inject
-    private ValentinoThrossi racer4;
+    private static final int MAX_RACERS = 1000;
 
     /**
-     * CDI injection of all race results
+     * CDI injection of the race scheduler
      */
     @Inject
-    private RaceResults raceResults;
+    private RaceScheduler raceScheduler;
 
     /**
-     * Session opened handler, creates and starts a race.
+     * Session opened handler, joins the client to a race.
      * @param session
      */
     @OnOpen
     public void onOpen(Session session) {
+        // the race runs in a track thread of the scheduler, the web socket container's thread returns right away
         try {
-            new Race(racer1, racer2, racer3, racer4, buildRaceEnvironment(session), new WebSocketRaceBroadcaster(session), raceResults).run();
+            final int racerCount = Math.min(MAX_RACERS, Math.max(4, Integer.parseInt(getParameter(session, "racers", "4"))));
+            final String engine = checkEngine(getParameter(session, "engine", "thread"));
+            raceScheduler.join(session, getParameter(session, "race", null), racerCount, engine, buildRaceEnvironment(session));
         } catch (Exception e) {
             e.printStackTrace();
-        } finally {
             try {
                 session.close();
             } catch (IOException ignore) {
@@ -92,6 +72,31 @@ public class WebSocketRace {
         }
     }
 
+    /**
+     * Retrieves the value of a request parameter of the session.
+     * @param session
+     * @param name
+     * @param defaultValue the value returned if the parameter is not present
+     * @return
+     */
+    private String getParameter(Session session, String name, String defaultValue) {
+        final List<String> values = session.getRequestParameterMap().get(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+
+    /**
+     * Checks the engine where racers run.
+     * @param engine "thread" or "executor", the only engines a client may choose
+     * @return the engine
+     * @throws IllegalArgumentException if the engine is unknown
+     */
+    private String checkEngine(String engine) {
+        if ("thread".equals(engine) || RaceScheduler.EXECUTOR_ENGINE.equals(engine)) {
+            return engine;
+        }
+        throw new IllegalArgumentException("Unknown engine " + engine);
+    }
+
     /**
      * Builds the race's environment, from the specified session.
      * @param session
@@ -105,9 +110,11 @@ public class WebSocketRace {
             environment.put(EnvironmentProperties.SERVER_NAME, hostSplit[0]);
             environment.put(EnvironmentProperties.SERVER_PORT, (hostSplit.length > 1 ? hostSplit[1] : "80"));
         }
-        final String requestURI = session.getRequestURI().toString();
+        // the path only, the request uri may include the query
+        final String requestURI = session.getRequestURI().getPath();
         final String rootPath = requestURI.equals(PATH) ? "" : requestURI.substring(0, (requestURI.length() - PATH.length()));
         environment.put(EnvironmentProperties.ROOT_PATH, rootPath);
+        environment.put(EnvironmentProperties.PIT_STOPS, getParameter(session, "pitStops", "1"));
         return environment;
     }
 
@@ -17,41 +17,59 @@
 package org.jboss.as.quickstarts.threadracing;
 
 import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
-import org.jboss.as.quickstarts.threadracing.results.RaceResult;
 
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through a Web Socket {@link javax.websocket.Session}.
+ * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through Web Socket {@link javax.websocket.Session}s, one for each spectator of the race.
+ *
+ * Messages are sent asynchronously, so neither the race nor the Web Socket container threads wait on a slow spectator. Each spectator has a queue of messages, sent one at a time, and a spectator which falls too far behind is disconnected.
  *
  * @author Eduardo Martins
  */
 public class WebSocketRaceBroadcaster implements RaceBroadcaster {
 
     /**
-     * the web socket's session where messages are sent.
+     * the max number of messages queued for a spectator
      */
-    private final Session session;
+    private static final int MAX_QUEUED_MESSAGES = 10000;
 
     /**
-     * Creates a new web socket broadcaster
+     * the race's spectators.
+     */
+    private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a spectator to the broadcast.
      * @param session the session where race progress messages will be sent.
      */
-    public WebSocketRaceBroadcaster(Session session) {
-        this.session = session;
+    public void addSpectator(Session session) {
+        spectators.add(new Spectator(session));
+    }
+
+    /**
+     * Ends the broadcast, each spectator's session is closed once all messages are sent.
+     */
+    public void close() {
+        for (Spectator spectator : spectators) {
+            spectator.close();
+        }
     }
 
     /**
-     * Sends a message to the web socket client.
+     * Sends a message to the web socket clients.
      * @param message
      */
     private void sendToClient(String message) {
-        try {
-            session.getBasicRemote().sendText(message);
-        } catch (IOException e) {
-            e.printStackTrace();
+        for (Spectator spectator : spectators) {
+            spectator.send(message);
         }
     }
 
@@ -114,11 +132,11 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
     }
 
     @Override
-    public void raceResult(RaceResult result) {
+    public void raceResult(List<String> sortedRacers) {
         StringBuilder sb = new StringBuilder();
         sb.append("<h2>Official Race Results</h2>");
         sb.append("<ol>");
-        for (String racer : result.getSortedRacers()) {
+        for (String racer : sortedRacers) {
             sb.append("<li>" + racer + "</li>");
         }
         sb.append("</ol>");
@@ -136,4 +154,111 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
         sb.append("</ol>");
         sendToClient(sb.toString());
     }
+
+    /**
+     * A spectator of the race, which sends messages through the async remote endpoint of its session, one at a time.
+     */
+    private class Spectator implements SendHandler {
+
+        private final Session session;
+
+        /**
+         * the messages waiting for the one being sent
+         */
+        private final Queue<String> messages = new ArrayDeque<>();
+
+        /**
+         * if a message is being sent
+         */
+        private boolean sending;
+
+        /**
+         * if the session should be closed once all messages are sent
+         */
+        private boolean closing;
+
+        private Spectator(Session session) {
+            this.session = session;
+        }
+
+        /**
+         * Sends the message, or queues it if another message is being sent.
+         * @param message
+         */
+        private void send(String message) {
+            synchronized (this) {
+                if (sending) {
+                    if (messages.size() == MAX_QUEUED_MESSAGES) {
+                        disconnect();
+                    } else {
+                        messages.add(message);
+                    }
+                    return;
+                }
+                sending = true;
+            }
+            sendText(message);
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            if (!result.isOK()) {
+                disconnect();
+                return;
+            }
+            final String next;
+            synchronized (this) {
+                next = messages.poll();
+                if (next == null) {
+                    sending = false;
+                    if (closing) {
+                        closeSession();
+                    }
+                    return;
+                }
+            }
+            sendText(next);
+        }
+
+        /**
+         * Sends a message through the session's async remote endpoint, this spectator is notified when done.
+         * @param message
+         */
+        private void sendText(String message) {
+            try {
+                session.getAsyncRemote().sendText(message, this);
+            } catch (RuntimeException e) {
+                // e.g. the session is closed
+                disconnect();
+            }
+        }
+
+        /**
+         * Closes the session once all messages are sent.
+         */
+        private synchronized void close() {
+            closing = true;
+            if (!sending) {
+                closeSession();
+            }
+        }
+
+        /**
+         * Stops broadcasting to the spectator, and closes its session.
+         */
+        private void disconnect() {
+            spectators.remove(this);
+            synchronized (this) {
+                messages.clear();
+            }
+            closeSession();
+        }
+
+        private void closeSession() {
+            try {
+                session.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
 }
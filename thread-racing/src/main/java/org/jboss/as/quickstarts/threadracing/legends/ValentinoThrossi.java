@@ -18,14 +18,24 @@ package org.jboss.as.quickstarts.threadracing.legends;
 
 import org.jboss.as.quickstarts.threadracing.Racer;
 
+import javax.enterprise.inject.Typed;
+
 /**
  * A MotoGP legend.
  *
+ * The bean is only typed as its class, so that it is not one more {@link Racer} bean.
+ *
  * @author Eduardo Martins
  */
+@Typed(ValentinoThrossi.class)
 public class ValentinoThrossi extends Racer {
 
+    /**
+     * the legend's racer name
+     */
+    public static final String NAME = "Valentino Throssi";
+
     public ValentinoThrossi() {
-        super("Valentino Throssi");
+        super(NAME);
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
+import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
+import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
+import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.security.RolesAllowed;
+import javax.ejb.Lock;
+import javax.ejb.LockType;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A singleton EJB which keeps the championship standings in memory, updated as race results are added.
+ *
+ * The standings are loaded once from the race results and the persisted racer's totals, each race result added updates only the points of its racers, and the standings may be rebuilt from all race results, e.g. to repair the persisted totals. Only the legends, which run every race, have a persisted total, the other racers run a single race, and the standings keep only the racers with most points, so these do not grow with every racer ever run.
+ *
+ * The methods have no transaction, so that the in-memory standings are only updated once the race result transaction commits. Race results are added concurrently, the in-memory standings and the persisted totals are safe to update from several races, only a rebuild excludes them.
+ *
+ * @author Eduardo Martins
+ */
+@Singleton
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class Championship {
+
+    /**
+     * the max number of racers in the standings
+     */
+    private static final int MAX_STANDINGS = 1000;
+
+    /**
+     * the racers which run every race, and have a persisted total
+     */
+    private static final List<String> LEGENDS = Arrays.asList(JimmieThronson.NAME, MichaelThrumacher.NAME, SebastienThroeb.NAME, ValentinoThrossi.NAME);
+
+    /**
+     * the race results storage
+     */
+    @Inject
+    private RaceResults results;
+
+    /**
+     * the in-memory standings
+     */
+    private ChampionshipStandings standings;
+
+    @PostConstruct
+    public void init() {
+        standings = results.findStandings(LEGENDS, MAX_STANDINGS);
+    }
+
+    /**
+     * Adds a race result.
+     * @param raceResult
+     */
+    @Lock(LockType.READ)
+    public void add(RaceResult raceResult) {
+        standings.update(results.add(raceResult));
+    }
+
+    /**
+     * Retrieves the racers with more points, ordered as the championship standings list.
+     * @param maxEntries the max number of entries
+     * @return
+     */
+    @Lock(LockType.READ)
+    public List<ChampionshipStandings.Entry> getEntryList(int maxEntries) {
+        return standings.getEntryList(maxEntries);
+    }
+
+    /**
+     * Rebuilds the championship standings, and the persisted racer's totals, from all race results. Only allowed to the admin role.
+     * @param maxEntries the max number of entries returned
+     * @return the rebuilt championship standings list
+     */
+    @Lock(LockType.WRITE)
+    @RolesAllowed("admin")
+    public List<ChampionshipStandings.Entry> rebuild(int maxEntries) {
+        standings = results.rebuildStandings(LEGENDS, MAX_STANDINGS);
+        return standings.getEntryList(maxEntries);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * A REST service which provides the championship standings, the command to rebuild these from all race results, and leaderboards aggregated by the database.
+ *
+ * @author Eduardo Martins
+ */
+@Path("/championship")
+public class ChampionshipService {
+
+    @Inject
+    private Championship championship;
+
+    @Inject
+    private RaceResults results;
+
+    /**
+     * Retrieves the championship standings.
+     * @param max the max number of racers
+     * @return
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getStandings(@QueryParam("max") @DefaultValue("100") int max) {
+        return toJson(championship.getEntryList(Math.max(1, max)));
+    }
+
+    /**
+     * Rebuilds the championship standings from all race results. The request must be authenticated with the admin role, see WEB-INF/web.xml.
+     * @param max the max number of racers
+     * @return the rebuilt standings
+     */
+    @POST
+    @Path("rebuild")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String rebuild(@QueryParam("max") @DefaultValue("100") int max) {
+        return toJson(championship.rebuild(Math.max(1, max)));
+    }
+
+    /**
+     * Retrieves the racers with most points, summed from all race results.
+     * @param max the max number of racers
+     * @return
+     */
+    @GET
+    @Path("leaderboard")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getLeaderboard(@QueryParam("max") @DefaultValue("10") int max) {
+        return toJson(results.findPointsLeaderboard(Math.max(1, max)));
+    }
+
+    /**
+     * Retrieves the fastest time of each race stage.
+     * @return
+     */
+    @GET
+    @Path("records")
+    @Produces(MediaType.APPLICATION_JSON)
+    public String getStageRecords() {
+        final JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (StageRecord record : results.findStageRecords()) {
+            builder.add(Json.createObjectBuilder().add("stage", record.getStage()).add("name", record.getRacerName()).add("duration", record.getDuration()));
+        }
+        return builder.build().toString();
+    }
+
+    /**
+     * Converts the standings to a JSON array.
+     * @param entries
+     * @return
+     */
+    private String toJson(List<ChampionshipStandings.Entry> entries) {
+        final JsonArrayBuilder builder = Json.createArrayBuilder();
+        for (ChampionshipStandings.Entry entry : entries) {
+            builder.add(Json.createObjectBuilder().add("name", entry.getName()).add("points", entry.getPoints()));
+        }
+        return builder.build().toString();
+    }
+}
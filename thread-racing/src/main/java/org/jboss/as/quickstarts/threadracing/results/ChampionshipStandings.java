@@ -17,41 +17,65 @@
 package org.jboss.as.quickstarts.threadracing.results;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * The championship standings provides a sorted list of (racer's name, points) pairs, representing the how racers stand in the championship, the set of all races run.
  *
- * The first entry is the current championship leader.
+ * The first entry is the current championship leader. The entries are kept sorted as points are added, so retrieving the standings does not depend on the number of races run. The standings keep a max number of entries, once full the racer with less points is evicted, so the standings do not grow with every racer ever run.
  *
  * The Race position to championship points mapping is:
  * 1st place    -> 4 points
  * 2nd place    -> 3 points
  * 3rd place    -> 2 points
  * 4th place    -> 1 points
+ * and below
  *
  * @author Eduardo Martins
  */
 public class ChampionshipStandings {
 
     /**
-     * the mapping racer's name --> racer's sum of points obtained in all added race results.
+     * the mapping racer's name --> racer's entry, with the sum of points obtained in all added race results.
      */
-    private final Map<String, Integer> racerPointsTotals = new HashMap<>();
+    private final Map<String, Entry> racerEntries = new HashMap<>();
 
     /**
-     * Adds all race results.
-     * @param raceResults
+     * the racer's entries, sorted by points
+     */
+    private final TreeSet<Entry> sortedEntries = new TreeSet<>();
+
+    /**
+     * the max number of racer's entries
+     */
+    private final int maxEntries;
+
+    /**
+     *
+     * @param maxEntries the max number of racer's entries
+     */
+    public ChampionshipStandings(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Retrieves the championship points of a race position.
+     * @param racerPosition
      * @return
      */
-    public ChampionshipStandings addAll(RaceResults raceResults) {
-        for (RaceResult raceResult : raceResults.findAll()) {
-            add(raceResult);
+    public static int getPoints(int racerPosition) {
+        if (racerPosition == 1) {
+            return 4;
+        } else if (racerPosition == 2) {
+            return 3;
+        } else if (racerPosition == 3) {
+            return 2;
+        } else {
+            return 1;
         }
-        return this;
     }
 
     /**
@@ -60,50 +84,70 @@ public class ChampionshipStandings {
      * @return
      */
     public ChampionshipStandings add(RaceResult raceResult) {
-        processRacerResult(raceResult.getRacer1Name(), raceResult.getRacer1Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer2Name(), raceResult.getRacer2Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer3Name(), raceResult.getRacer3Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer4Name(), raceResult.getRacer4Position(), racerPointsTotals);
+        for (RacerResult racerResult : raceResult.getRacerResults()) {
+            add(racerResult.getRacerName(), racerResult.getPoints());
+        }
         return this;
     }
 
     /**
-     * Updates the racer's totals with a race's position.
+     * Adds points to a racer's total. The points of a racer previously evicted from the standings are not added to.
      * @param racerName
-     * @param racerPosition
-     * @param racerPointsTotals
+     * @param racerPoints
+     * @return
      */
-    private void processRacerResult(String racerName, int racerPosition, Map<String, Integer> racerPointsTotals) {
-        final int racerPoints;
-        if (racerPosition == 1) {
-            racerPoints = 4;
-        } else if (racerPosition == 2) {
-            racerPoints = 3;
-        } else if (racerPosition == 3) {
-            racerPoints = 2;
-        } else {
-            racerPoints = 1;
+    public synchronized ChampionshipStandings add(String racerName, int racerPoints) {
+        final Entry racerEntry = racerEntries.get(racerName);
+        return set(racerName, racerEntry == null ? racerPoints : racerPoints + racerEntry.getPoints());
+    }
+
+    /**
+     * Updates the racers' totals, e.g. with the persisted totals of a race's racers. Totals only grow, and races sharing racers may update these in any order, so a racer's total is only replaced by a greater one.
+     * @param racerPoints the mapping racer's name --> racer's total
+     * @return
+     */
+    public synchronized ChampionshipStandings update(Map<String, Integer> racerPoints) {
+        for (Map.Entry<String, Integer> racer : racerPoints.entrySet()) {
+            final Entry racerEntry = racerEntries.get(racer.getKey());
+            if (racerEntry == null || racerEntry.getPoints() < racer.getValue()) {
+                set(racer.getKey(), racer.getValue());
+            }
         }
-        final Integer racerPointsTotal = racerPointsTotals.get(racerName);
-        if (racerPointsTotal == null) {
-            racerPointsTotals.put(racerName, racerPoints);
-        } else {
-            racerPointsTotals.put(racerName, racerPoints + racerPointsTotal);
+        return this;
+    }
+
+    /**
+     * Sets a racer's total, evicting the racer with less points if the standings are full.
+     * @param racerName
+     * @param racerPoints
+     * @return
+     */
+    public synchronized ChampionshipStandings set(String racerName, int racerPoints) {
+        final Entry newRacerEntry = new Entry(racerName, racerPoints);
+        final Entry racerEntry = racerEntries.put(racerName, newRacerEntry);
+        if (racerEntry != null) {
+            sortedEntries.remove(racerEntry);
+        }
+        sortedEntries.add(newRacerEntry);
+        if (sortedEntries.size() > maxEntries) {
+            racerEntries.remove(sortedEntries.pollLast().getName());
         }
+        return this;
     }
 
     /**
-     * Builds the championship standings list. The list is ordered by racer's points, being the first entry the racer currently with more points. Racers with same points will be sorted by name.
+     * Builds the list of the racers with more points, ordered as the championship standings list.
+     * @param maxEntries the max number of entries
      * @return
      */
-    public List<Entry> getEntryList() {
-        final List<Entry> entries = new ArrayList<>();
-        for (Map.Entry<String, Integer> racerPointsTotal : racerPointsTotals.entrySet()) {
-            final String racer = racerPointsTotal.getKey();
-            final Integer points = racerPointsTotal.getValue();
-            entries.add(new Entry(racer, points));
+    public synchronized List<Entry> getEntryList(int maxEntries) {
+        final List<Entry> entries = new ArrayList<>(Math.min(maxEntries, sortedEntries.size()));
+        for (Entry entry : sortedEntries) {
+            if (entries.size() == maxEntries) {
+                break;
+            }
+            entries.add(entry);
         }
-        Collections.sort(entries);
         return entries;
     }
 
@@ -19,27 +19,22 @@ package org.jboss.as.quickstarts.threadracing.results;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import javax.persistence.Column;
+import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.NamedQueries;
-import javax.persistence.NamedQuery;
+import javax.persistence.OneToMany;
+import javax.persistence.OrderBy;
 import javax.persistence.Table;
 
-import org.jboss.as.quickstarts.threadracing.Race;
-
 /**
- * A race result, a JPA entity.
+ * A race result, a JPA entity, with a {@link RacerResult} for each racer, so a race may have any number of racers.
  *
  * @author Eduardo Martins
  */
 @Entity
 @Table(name = "THREAD_RACE_RESULTS")
-@NamedQueries({
-        @NamedQuery(name = "RaceResult.findAll", query = "SELECT e FROM RaceResult e")
-})
 public class RaceResult implements Serializable {
 
     /**
@@ -51,29 +46,9 @@ public class RaceResult implements Serializable {
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private int id;
 
-    @Column
-    private String racer1Name;
-
-    @Column
-    private int racer1Position;
-
-    @Column
-    private String racer2Name;
-
-    @Column
-    private int racer2Position;
-
-    @Column
-    private String racer3Name;
-
-    @Column
-    private int racer3Position;
-
-    @Column
-    private String racer4Name;
-
-    @Column
-    private int racer4Position;
+    @OneToMany(mappedBy = "race", cascade = CascadeType.ALL)
+    @OrderBy("position")
+    private List<RacerResult> racerResults = new ArrayList<>();
 
     public int getId() {
         return id;
@@ -83,97 +58,25 @@ public class RaceResult implements Serializable {
         this.id = id;
     }
 
-    public String getRacer1Name() {
-        return racer1Name;
-    }
-
-    public void setRacer1Name(String racer1Name) {
-        this.racer1Name = racer1Name;
-    }
-
-    public int getRacer1Position() {
-        return racer1Position;
+    public List<RacerResult> getRacerResults() {
+        return racerResults;
     }
 
-    public void setRacer1Position(int racer1Position) {
-        this.racer1Position = racer1Position;
-    }
-
-    public String getRacer2Name() {
-        return racer2Name;
-    }
-
-    public void setRacer2Name(String racer2Name) {
-        this.racer2Name = racer2Name;
-    }
-
-    public int getRacer2Position() {
-        return racer2Position;
-    }
-
-    public void setRacer2Position(int racer2Position) {
-        this.racer2Position = racer2Position;
-    }
-
-    public String getRacer3Name() {
-        return racer3Name;
-    }
-
-    public void setRacer3Name(String racer3Name) {
-        this.racer3Name = racer3Name;
-    }
-
-    public int getRacer3Position() {
-        return racer3Position;
-    }
-
-    public void setRacer3Position(int racer3Position) {
-        this.racer3Position = racer3Position;
-    }
-
-    public String getRacer4Name() {
-        return racer4Name;
-    }
-
-    public void setRacer4Name(String racer4Name) {
-        this.racer4Name = racer4Name;
-    }
-
-    public int getRacer4Position() {
-        return racer4Position;
-    }
-
-    public void setRacer4Position(int racer4Position) {
-        this.racer4Position = racer4Position;
+    public void setRacerResults(List<RacerResult> racerResults) {
+        this.racerResults = racerResults;
     }
 
     /**
-     * Sets the result for the provided registration.
+     * Adds the result of a racer.
      *
-     * @param registration
+     * @param racerName
      * @param position
+     * @return the racer's result, where stage results may be added
      */
-    public void setPosition(Race.Registration registration, int position) {
-        switch (registration.getNumber()) {
-            case 1:
-                setRacer1Name(registration.getRacer().getName());
-                setRacer1Position(position);
-                break;
-            case 2:
-                setRacer2Name(registration.getRacer().getName());
-                setRacer2Position(position);
-                break;
-            case 3:
-                setRacer3Name(registration.getRacer().getName());
-                setRacer3Position(position);
-                break;
-            case 4:
-                setRacer4Name(registration.getRacer().getName());
-                setRacer4Position(position);
-                break;
-            default:
-                throw new IllegalStateException("registration number must be 1-4");
-        }
+    public RacerResult addRacerResult(String racerName, int position) {
+        final RacerResult racerResult = new RacerResult(this, racerName, position, ChampionshipStandings.getPoints(position));
+        racerResults.add(racerResult);
+        return racerResult;
     }
 
     /**
@@ -182,31 +85,12 @@ public class RaceResult implements Serializable {
      * @return
      */
     public List<String> getSortedRacers() {
-        List<String> result = new ArrayList<>();
-        result.add(getRacerWithPosition(1));
-        result.add(getRacerWithPosition(2));
-        result.add(getRacerWithPosition(3));
-        result.add(getRacerWithPosition(4));
-        return result;
-    }
-
-    /**
-     * Retrieves the racer with the specified position
-     *
-     * @param i
-     * @return
-     */
-    public String getRacerWithPosition(int i) {
-        if (racer1Position == i) {
-            return racer1Name;
-        } else if (racer2Position == i) {
-            return racer2Name;
-        } else if (racer3Position == i) {
-            return racer3Name;
-        } else if (racer4Position == i) {
-            return racer4Name;
-        } else {
-            return null;
+        final List<RacerResult> sortedRacerResults = new ArrayList<>(racerResults);
+        sortedRacerResults.sort((r1, r2) -> Integer.compare(r1.getPosition(), r2.getPosition()));
+        final List<String> result = new ArrayList<>();
+        for (RacerResult racerResult : sortedRacerResults) {
+            result.add(racerResult.getRacerName());
         }
+        return result;
     }
 }
@@ -18,13 +18,22 @@ package org.jboss.as.quickstarts.threadracing.results;
 
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A stateless EJB used to manage the storage of race results, through JPA.
  *
  * The JPA PU deployed with the app (see src/main/resources/META-INF/persistence.xml) is used to persist race's results, and has the particularity of not declaring the datasource it targets, and in such case the Java EE 7 introduced default datasource is used.
+ *
+ * The championship points total of each racer which runs every race, i.e. a legend, is also persisted, and updated in the same transaction as the race result added. The totals are created up front, when the standings are loaded, so races only lock and update existing rows, and the totals of a race's racers are loaded by a single query, and the changes are flushed in JDBC batches on commit. Other racers run a single race, and have no persisted total, so the table does not grow with every racer ever run.
+ *
+ * The leaderboards are aggregated by the database, through indexed queries, instead of loading the results.
  * @author Eduardo Martins
  */
 @Stateless
@@ -39,16 +48,105 @@ public class RaceResults {
     /**
      * Adds a race result.
      * @param e
+     * @return the mapping racer's name --> racer's championship points total, for each racer of the race
      */
-    public void add(RaceResult e) {
+    public Map<String, Integer> add(RaceResult e) {
         em.persist(e);
+        final Map<String, Integer> racerPoints = new HashMap<>();
+        for (RacerResult racerResult : e.getRacerResults()) {
+            racerPoints.merge(racerResult.getRacerName(), racerResult.getPoints(), Integer::sum);
+        }
+        // the totals are locked until commit, so races sharing racers, e.g. the legends, don't lose each other's points
+        final List<RacerStanding> racerStandings = em.createNamedQuery("RacerStanding.findByRacerNames", RacerStanding.class)
+                .setParameter("racerNames", racerPoints.keySet())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        for (RacerStanding racerStanding : racerStandings) {
+            racerStanding.setPoints(racerStanding.getPoints() + racerPoints.get(racerStanding.getRacerName()));
+            racerPoints.put(racerStanding.getRacerName(), racerStanding.getPoints());
+        }
+        return racerPoints;
+    }
+
+    /**
+     * Finds the championship standings, i.e. the racers with most points, summed by the database from all race results, and the persisted racer's totals. The totals of the specified racers are created if missing, from their race results.
+     * @param racerNames the names of the racers with a persisted total
+     * @param maxEntries the max number of standings entries
+     * @return
+     */
+    public ChampionshipStandings findStandings(Collection<String> racerNames, int maxEntries) {
+        final ChampionshipStandings standings = findPointsStandings(maxEntries);
+        final Map<String, Integer> racerPoints = new HashMap<>();
+        for (String racerName : racerNames) {
+            racerPoints.put(racerName, 0);
+        }
+        for (RacerStanding racerStanding : em.createNamedQuery("RacerStanding.findByRacerNames", RacerStanding.class)
+                .setParameter("racerNames", racerNames)
+                .getResultList()) {
+            racerPoints.remove(racerStanding.getRacerName());
+            standings.set(racerStanding.getRacerName(), racerStanding.getPoints());
+        }
+        if (!racerPoints.isEmpty()) {
+            for (Object[] row : em.createNamedQuery("RacerResult.sumPointsByRacerNames", Object[].class)
+                    .setParameter("racerNames", racerPoints.keySet())
+                    .getResultList()) {
+                racerPoints.put((String) row[0], ((Number) row[1]).intValue());
+            }
+            for (Map.Entry<String, Integer> racer : racerPoints.entrySet()) {
+                em.persist(new RacerStanding(racer.getKey(), racer.getValue()));
+            }
+            standings.update(racerPoints);
+        }
+        return standings;
+    }
+
+    /**
+     * Rebuilds the persisted racer's totals from all race results.
+     * @param racerNames the names of the racers with a persisted total
+     * @param maxEntries the max number of standings entries
+     * @return the rebuilt championship standings
+     */
+    public ChampionshipStandings rebuildStandings(Collection<String> racerNames, int maxEntries) {
+        em.createNamedQuery("RacerStanding.deleteAll").executeUpdate();
+        return findStandings(racerNames, maxEntries);
+    }
+
+    /**
+     * Finds the racers with most points, summed by the database from all race results.
+     * @param maxResults the max number of racers
+     * @return
+     */
+    public List<ChampionshipStandings.Entry> findPointsLeaderboard(int maxResults) {
+        return findPointsStandings(maxResults).getEntryList(maxResults);
+    }
+
+    /**
+     * Builds the standings of the racers with most points, summed by the database from all race results.
+     * @param maxResults the max number of racers
+     * @return
+     */
+    private ChampionshipStandings findPointsStandings(int maxResults) {
+        final List<Object[]> rows = em.createNamedQuery("RacerResult.sumPoints", Object[].class)
+                .setMaxResults(maxResults)
+                .getResultList();
+        final ChampionshipStandings standings = new ChampionshipStandings(maxResults);
+        for (Object[] row : rows) {
+            standings.add((String) row[0], ((Number) row[1]).intValue());
+        }
+        return standings;
     }
 
     /**
-     * Finds all race results.
+     * Finds the fastest time of each race stage. If racers share a stage's fastest time, the first by name is the record holder.
      * @return
      */
-    public List<RaceResult> findAll() {
-        return em.createNamedQuery("RaceResult.findAll", RaceResult.class).getResultList();
+    public List<StageRecord> findStageRecords() {
+        final List<StageRecord> records = new ArrayList<>();
+        for (StageRecord record : em.createNamedQuery("RacerStageResult.findFastest", StageRecord.class).getResultList()) {
+            if (records.isEmpty() || !records.get(records.size() - 1).getStage().equals(record.getStage())) {
+                records.add(record);
+            }
+        }
+        return records;
     }
 }
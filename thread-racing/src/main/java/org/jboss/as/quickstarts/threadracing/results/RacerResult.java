@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.CascadeType;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+/**
+ * The result of a racer in a race, a JPA entity.
+ *
+ * The championship points of the race position are stored with the result, so that the database sums the points of each racer, using the racer name index, instead of loading all results.
+ *
+ * @author Eduardo Martins
+ */
+@Entity
+@Table(name = "THREAD_RACER_RESULTS", indexes = {
+        @Index(name = "THREAD_RACER_RESULTS_RACE_IDX", columnList = "RACE_ID"),
+        @Index(name = "THREAD_RACER_RESULTS_RACER_IDX", columnList = "racerName, points")
+})
+@NamedQueries({
+        @NamedQuery(name = "RacerResult.sumPoints", query = "SELECT r.racerName, SUM(r.points) FROM RacerResult r GROUP BY r.racerName ORDER BY SUM(r.points) DESC, r.racerName"),
+        @NamedQuery(name = "RacerResult.sumPointsByRacerNames", query = "SELECT r.racerName, SUM(r.points) FROM RacerResult r WHERE r.racerName IN :racerNames GROUP BY r.racerName")
+})
+public class RacerResult implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "RACE_ID")
+    private RaceResult race;
+
+    @Column(nullable = false)
+    private String racerName;
+
+    @Column
+    private int position;
+
+    @Column
+    private int points;
+
+    @OneToMany(mappedBy = "racerResult", cascade = CascadeType.ALL)
+    private List<RacerStageResult> stageResults = new ArrayList<>();
+
+    public RacerResult() {
+    }
+
+    public RacerResult(RaceResult race, String racerName, int position, int points) {
+        this.race = race;
+        this.racerName = racerName;
+        this.position = position;
+        this.points = points;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public RaceResult getRace() {
+        return race;
+    }
+
+    public void setRace(RaceResult race) {
+        this.race = race;
+    }
+
+    public String getRacerName() {
+        return racerName;
+    }
+
+    public void setRacerName(String racerName) {
+        this.racerName = racerName;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public List<RacerStageResult> getStageResults() {
+        return stageResults;
+    }
+
+    public void setStageResults(List<RacerStageResult> stageResults) {
+        this.stageResults = stageResults;
+    }
+
+    /**
+     * Adds the time the racer took to complete a race stage.
+     *
+     * @param stage
+     * @param duration the duration, in milliseconds
+     */
+    public void addStageResult(String stage, long duration) {
+        stageResults.add(new RacerStageResult(this, stage, duration));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * The time a racer took to complete a race stage, a JPA entity.
+ *
+ * The stage and duration index lets the database find the fastest time of each stage without scanning all results.
+ *
+ * @author Eduardo Martins
+ */
+@Entity
+@Table(name = "THREAD_RACER_STAGE_RESULTS", indexes = {
+        @Index(name = "THREAD_RACER_STAGE_RESULTS_RACER_IDX", columnList = "RACER_RESULT_ID"),
+        @Index(name = "THREAD_RACER_STAGE_RESULTS_STAGE_IDX", columnList = "stage, duration")
+})
+@NamedQueries({
+        @NamedQuery(name = "RacerStageResult.findFastest", query = "SELECT NEW org.jboss.as.quickstarts.threadracing.results.StageRecord(s.stage, r.racerName, s.duration) FROM RacerStageResult s JOIN s.racerResult r WHERE s.duration = (SELECT MIN(t.duration) FROM RacerStageResult t WHERE t.stage = s.stage) ORDER BY s.stage, r.racerName")
+})
+public class RacerStageResult implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "RACER_RESULT_ID")
+    private RacerResult racerResult;
+
+    @Column(nullable = false)
+    private String stage;
+
+    @Column
+    private long duration;
+
+    public RacerStageResult() {
+    }
+
+    public RacerStageResult(RacerResult racerResult, String stage, long duration) {
+        this.racerResult = racerResult;
+        this.stage = stage;
+        this.duration = duration;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public RacerResult getRacerResult() {
+        return racerResult;
+    }
+
+    public void setRacerResult(RacerResult racerResult) {
+        this.racerResult = racerResult;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+/**
+ * A racer's championship points total, a JPA entity, which is updated each time a race result is added, so that the championship standings never need to be computed from all race results.
+ *
+ * Only the racers which run every race, the legends, have a persisted total, created before any race result is added. Other racers have random names, and run a single race.
+ *
+ * @author Eduardo Martins
+ */
+@Entity
+@Table(name = "THREAD_RACE_STANDINGS")
+@NamedQueries({
+        @NamedQuery(name = "RacerStanding.findAll", query = "SELECT e FROM RacerStanding e"),
+        @NamedQuery(name = "RacerStanding.findByRacerNames", query = "SELECT e FROM RacerStanding e WHERE e.racerName IN :racerNames"),
+        @NamedQuery(name = "RacerStanding.deleteAll", query = "DELETE FROM RacerStanding e")
+})
+public class RacerStanding implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String racerName;
+
+    @Column
+    private int points;
+
+    public RacerStanding() {
+    }
+
+    public RacerStanding(String racerName, int points) {
+        this.racerName = racerName;
+        this.points = points;
+    }
+
+    public String getRacerName() {
+        return racerName;
+    }
+
+    public void setRacerName(String racerName) {
+        this.racerName = racerName;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+/**
+ * The fastest time of a race stage, and the racer who did it.
+ *
+ * @author Eduardo Martins
+ */
+public class StageRecord {
+
+    private final String stage;
+    private final String racerName;
+    private final long duration;
+
+    /**
+     *
+     * @param stage
+     * @param racerName
+     * @param duration the duration, in milliseconds
+     */
+    public StageRecord(String stage, String racerName, long duration) {
+        this.stage = stage;
+        this.racerName = racerName;
+        this.duration = duration;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getRacerName() {
+        return racerName;
+    }
+
+    /**
+     *
+     * @return the duration, in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+}
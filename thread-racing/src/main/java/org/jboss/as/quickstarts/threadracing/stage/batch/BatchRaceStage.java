@@ -19,11 +19,14 @@ package org.jboss.as.quickstarts.threadracing.stage.batch;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
+import javax.batch.operations.JobExecutionNotRunningException;
 import javax.batch.operations.JobOperator;
 import javax.batch.runtime.BatchRuntime;
 import javax.batch.runtime.BatchStatus;
-import javax.batch.runtime.JobExecution;
+import javax.inject.Inject;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The Batch 1.0 race stage, which starts a job execution and waits for it to complete.
@@ -31,22 +34,44 @@ import java.util.Properties;
  * Apps deploy Batch jobs by packaging the related XML descriptors in META-INF/batch-jobs. The name of these Batch jobs, which is needed to start their execution, is the name of the XML file, without the ".xml".
  * This app deploys a Batch job named "race", so the XML descriptor file is named "race.xml" and put in "src/main/resources/META-INF/batch-jobs" directory of the project.
  *
+ * The job start does not provide a Future wrt the job execution, so the job's {@link BatchRaceStageJobListener} signals its end, which the stage waits for through {@link BatchRaceStageCompletions}.
  *
  * @author Eduardo Martins
  */
 public class BatchRaceStage implements RaceStage {
 
+    /**
+     * the max time, in seconds, a racer waits for the job execution to end
+     */
+    private static final long TIMEOUT = 60;
+
+    /**
+     * cdi injection of the job executions' completion signals
+     */
+    @Inject
+    private BatchRaceStageCompletions completions;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
         // retrieve the job operator
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         // start the race.xml job
-        Long executionId = jobOperator.start("race", new Properties());
-        // would be nice if the job start would provide a Future object wrt the job execution, perhaps something for next spec revision
-        // just check every 1ms if the job status is completed
-        JobExecution jobExecution = jobOperator.getJobExecution(executionId);
-        while (jobExecution.getBatchStatus() != BatchStatus.COMPLETED) {
-            Thread.sleep(1);
+        long executionId = jobOperator.start("race", new Properties());
+        // wait for the job listener to signal the job execution's end
+        final BatchStatus batchStatus;
+        try {
+            batchStatus = completions.await(executionId, TIMEOUT, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            try {
+                jobOperator.stop(executionId);
+            } catch (JobExecutionNotRunningException ignore) {
+                // ended meanwhile
+            }
+            throw new IllegalStateException("Batch job execution " + executionId + " did not end in " + TIMEOUT + " seconds", e);
+        }
+        // the job listener runs before the execution is marked as completed, so only a failed or stopped execution is an error
+        if (batchStatus == BatchStatus.FAILED || batchStatus == BatchStatus.STOPPING || batchStatus == BatchStatus.STOPPED || batchStatus == BatchStatus.ABANDONED) {
+            throw new IllegalStateException("Batch job execution " + executionId + " ended with status " + batchStatus + ", exit status " + jobOperator.getJobExecution(executionId).getExitStatus());
         }
     }
 }
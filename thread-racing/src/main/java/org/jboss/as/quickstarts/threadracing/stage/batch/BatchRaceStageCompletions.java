@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import javax.batch.runtime.BatchStatus;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The completion signals of the race job executions, keyed by execution id.
+ *
+ * The job listener signals an execution's end, and the racer which started the execution waits for the signal, instead of polling the job repository. The execution may end before the racer starts waiting, so whoever comes first creates the signal, and the racer removes it once received.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class BatchRaceStageCompletions {
+
+    /**
+     * the completion signals, with the batch status of each job execution's end
+     */
+    private final ConcurrentMap<Long, CompletableFuture<BatchStatus>> completions = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the completion signal of the specified job execution.
+     * @param executionId
+     * @return
+     */
+    private CompletableFuture<BatchStatus> get(long executionId) {
+        return completions.computeIfAbsent(executionId, id -> new CompletableFuture<>());
+    }
+
+    /**
+     * Signals the end of a job execution.
+     * @param executionId
+     * @param batchStatus the batch status of the job execution, at the end
+     */
+    public void complete(long executionId, BatchStatus batchStatus) {
+        final CompletableFuture<BatchStatus> completion = get(executionId);
+        if (!completion.complete(batchStatus)) {
+            // the racer gave up waiting, nobody will remove the signal
+            completions.remove(executionId, completion);
+        }
+    }
+
+    /**
+     * Waits for the end of a job execution.
+     * @param executionId
+     * @param timeout
+     * @param unit
+     * @return the batch status of the job execution, at the end
+     * @throws InterruptedException
+     * @throws TimeoutException if the job execution did not end in time
+     */
+    public BatchStatus await(long executionId, long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+        final CompletableFuture<BatchStatus> completion = get(executionId);
+        try {
+            final BatchStatus batchStatus = completion.get(timeout, unit);
+            completions.remove(executionId, completion);
+            return batchStatus;
+        } catch (TimeoutException | InterruptedException e) {
+            if (completion.completeExceptionally(e)) {
+                // leave the signal to the listener, which removes it once the execution ends
+                throw e;
+            }
+            // the execution ended meanwhile
+            completions.remove(executionId, completion);
+            return completion.getNow(null);
+        } catch (ExecutionException e) {
+            // never completed exceptionally by the listener
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
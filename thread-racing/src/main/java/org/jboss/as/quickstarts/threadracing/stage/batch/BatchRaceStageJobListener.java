@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import javax.batch.api.listener.AbstractJobListener;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * The race batch job listener, which signals the end of each job execution to the racer waiting for it.
+ *
+ * @author Eduardo Martins
+ */
+@Named
+public class BatchRaceStageJobListener extends AbstractJobListener {
+
+    /**
+     * the job execution's context
+     */
+    @Inject
+    private JobContext jobContext;
+
+    /**
+     * the job executions' completion signals
+     */
+    @Inject
+    private BatchRaceStageCompletions completions;
+
+    @Override
+    public void afterJob() {
+        completions.complete(jobContext.getExecutionId(), jobContext.getBatchStatus());
+    }
+}
@@ -61,7 +61,7 @@ public class EEConcurrencyRaceStage implements RaceStage {
                 }
             }
         };
-        // submit the task and wait for its execution
+        // submit the task and wait for its execution, racers never run in the default managed executor service, so the task always gets a thread
         executorService.submit(runnableToSubmit).get();
     }
 }
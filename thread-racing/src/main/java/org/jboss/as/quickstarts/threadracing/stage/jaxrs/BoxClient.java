@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jaxrs;
+
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.WebTarget;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JAX-RS 2.0 client shared by all racers, to reach the race's boxes.
+ *
+ * A JAX-RS client is heavy to create, and each one keeps its own connections, so the app creates a single client, with a pool of keep-alive connections, and closes it on undeploy. Async requests run in the default {@link javax.enterprise.concurrent.ManagedExecutorService}.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class BoxClient {
+
+    /**
+     * the max number of pooled connections
+     */
+    private static final int CONNECTION_POOL_SIZE = 200;
+
+    /**
+     * JNDI injection of the default managed executor service, where async requests run
+     */
+    @Resource
+    private ManagedExecutorService executorService;
+
+    /**
+     * the shared client
+     */
+    private Client client;
+
+    /**
+     * the web targets created, by uri
+     */
+    private final ConcurrentMap<String, WebTarget> targets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        client = new ResteasyClientBuilder()
+            .connectionPoolSize(CONNECTION_POOL_SIZE)
+            .maxPooledPerRoute(CONNECTION_POOL_SIZE)
+            .connectionTTL(60, TimeUnit.SECONDS)
+            .executorService(executorService)
+            .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Retrieves the web target for the specified uri.
+     * @param uri
+     * @return
+     */
+    public WebTarget target(String uri) {
+        return targets.computeIfAbsent(uri, client::target);
+    }
+}
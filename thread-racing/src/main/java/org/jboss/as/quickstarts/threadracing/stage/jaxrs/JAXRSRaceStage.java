@@ -20,19 +20,32 @@ import org.jboss.as.quickstarts.threadracing.EnvironmentProperties;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+import javax.inject.Inject;
 import javax.ws.rs.client.WebTarget;
-import javax.ws.rs.core.Response;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The JAX-RS 2.0 race stage implements the race's boxes, which a racer uses to do a pit stop.
  *
+ * The racer sends the pit stop requests asynchronously, through the reactive invoker introduced by JAX-RS 2.1, using the app's shared {@link BoxClient}. The number of requests sent concurrently is the race's {@link EnvironmentProperties#PIT_STOPS} environment property.
+ *
  * @author Eduardo Martins
  */
 public class JAXRSRaceStage implements RaceStage {
 
+    /**
+     * the max number of pit stop requests a racer sends concurrently
+     */
+    private static final int MAX_PIT_STOPS = 16;
+
+    /**
+     * cdi injection of the shared client
+     */
+    @Inject
+    private BoxClient boxClient;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
         // build the REST service uri from race's environment
@@ -46,18 +59,42 @@ public class JAXRSRaceStage implements RaceStage {
             .append(BoxApplication.PATH)
             .append("/pitStop")
             .toString();
-        // create and setup the new standard JAX-RS client (and its web target)
-        final Client client = ClientBuilder.newClient();
-        final WebTarget target = client.target(pitStopURI);
+        final int requests = getPitStops(environment);
+        // retrieve the web target from the shared client, with the racers name provided as param 'racer'
+        final WebTarget target = boxClient.target(pitStopURI).path("{racer}").resolveTemplate("racer", registration.getRacer().getName());
         // get current time
         long now = System.currentTimeMillis();
-        // box box box, i.e. send a request to the Box rest service, with the racers name provided as param 'racer'
-        final Response response = target.path("{racer}").resolveTemplate("racer", registration.getRacer().getName()).request().get();
-        if (response.getStatus() != 200) {
-            throw new IllegalStateException("PIT STOP failure trouble " + response.getStatus());
-        } else {
-            // broadcast a msg indicating the duration of the pit stop operation
-            registration.broadcast("PIT STOP in " + (System.currentTimeMillis() - now) + "ms");
+        // box box box, i.e. send the requests to the Box rest service, without waiting for each response
+        final CompletableFuture<?>[] responses = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            responses[i] = target.request().rx().get().thenAccept(response -> {
+                // closing the response releases the connection back to the pool
+                try {
+                    if (response.getStatus() != 200) {
+                        throw new IllegalStateException("PIT STOP failure trouble " + response.getStatus());
+                    }
+                } finally {
+                    response.close();
+                }
+            }).toCompletableFuture();
         }
+        try {
+            CompletableFuture.allOf(responses).get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+        // broadcast a msg indicating the duration of the pit stop operation
+        registration.broadcast("PIT STOP in " + (System.currentTimeMillis() - now) + "ms");
+    }
+
+    /**
+     * Retrieves the number of pit stop requests each racer sends concurrently.
+     * @param environment the race's environment
+     * @return the race's {@link EnvironmentProperties#PIT_STOPS}, from 1 up to 16
+     */
+    public static int getPitStops(Map<String, String> environment) {
+        final String pitStops = environment.get(EnvironmentProperties.PIT_STOPS);
+        return pitStops == null ? 1 : Math.max(1, Math.min(MAX_PIT_STOPS, Integer.parseInt(pitStops)));
     }
 }
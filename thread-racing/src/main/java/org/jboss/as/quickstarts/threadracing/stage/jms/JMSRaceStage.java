@@ -20,48 +20,74 @@ import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
 import javax.annotation.Resource;
+import javax.inject.Inject;
 import javax.jms.ConnectionFactory;
-import javax.jms.JMSConsumer;
 import javax.jms.JMSContext;
 import javax.jms.Queue;
-import javax.jms.TemporaryQueue;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/response trough a temporary queue pattern.
+ * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/response pattern.
+ *
+ * Instead of a temporary queue per request, all responses are sent to a single reply queue, and matched with the requests by the JMS correlation id. The reply queue's single consumer, the {@link JMSRaceStageReplyListener}, dispatches each response to the racer waiting for it.
  *
  * @author Eduardo Martins
  */
 public class JMSRaceStage implements RaceStage {
 
+    /**
+     * the max time, in seconds, a racer waits for the response
+     */
+    private static final long TIMEOUT = 30;
+
     /**
      * injection of JMS message listener's queue, through JNDI lookup
      */
     @Resource(lookup = JMSRaceStageMessageListener.REQUEST_QUEUE)
     private Queue requestQueue;
+    /**
+     * injection of the reply queue, through JNDI lookup
+     */
+    @Resource(lookup = JMSRaceStageReplyListener.REPLY_QUEUE)
+    private Queue replyQueue;
     @Resource(lookup = "java:comp/DefaultJMSConnectionFactory")
     private ConnectionFactory cf;
 
+    /**
+     * cdi injection of the responses waited for
+     */
+    @Inject
+    private JMSRaceStageReplies replies;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
-        try (JMSContext jmsContext = cf.createContext()) {
-            // create response tmp queue
-            final TemporaryQueue responseQueue = jmsContext.createTemporaryQueue();
+        final String correlationId = UUID.randomUUID().toString();
+        final String request = UUID.randomUUID().toString();
+        // expect the response before sending the request, it may arrive before the send returns
+        final CompletableFuture<String> reply = replies.expect(correlationId);
+        try {
             // send request
-            final String request = UUID.randomUUID().toString();
-            jmsContext.createProducer()
-                    .setJMSReplyTo(responseQueue)
-                    .send(requestQueue, request);
+            try (JMSContext jmsContext = cf.createContext()) {
+                jmsContext.createProducer()
+                        .setJMSCorrelationID(correlationId)
+                        .setJMSReplyTo(replyQueue)
+                        .send(requestQueue, request);
+            }
             // receive response
-            try (JMSConsumer consumer = jmsContext.createConsumer(responseQueue)) {
-                String response = consumer.receiveBody(String.class);
-                if (response == null) {
-                    registration.aborted(new IllegalStateException("Message processing timed out"));
-                } else if (!response.equals(request)) {
-                    registration.aborted(new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request));
-                }
+            final String response;
+            try {
+                response = reply.get(TIMEOUT, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Message processing timed out");
+            }
+            if (!response.equals(request)) {
+                throw new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request);
             }
+        } finally {
+            replies.forget(correlationId);
         }
     }
 }
-
@@ -27,7 +27,7 @@ import javax.jms.MessageListener;
 import javax.jms.TextMessage;
 
 /**
- * The JMS race stage {@link javax.jms.MessageListener}, which simply returns back the received message's text.
+ * The JMS race stage {@link javax.jms.MessageListener}, which simply returns back the received message's text, and correlation id.
  *
  * This class, being a container managed class, creates a JMS destination through annotation {@link javax.jms.JMSDestinationDefinition}.
  *
@@ -52,9 +52,11 @@ public class JMSRaceStageMessageListener implements MessageListener {
 
     @Override
     public void onMessage(Message message) {
-        // just echo the msg
+        // just echo the msg, with the request's correlation id, which the requester uses to match the reply
         try {
-            jmsContext.createProducer().send(message.getJMSReplyTo(), ((TextMessage) message).getText());
+            jmsContext.createProducer()
+                    .setJMSCorrelationID(message.getJMSCorrelationID())
+                    .send(message.getJMSReplyTo(), ((TextMessage) message).getText());
         } catch (JMSException e) {
             e.printStackTrace();
         }
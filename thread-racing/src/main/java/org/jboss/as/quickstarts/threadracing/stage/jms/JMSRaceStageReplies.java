@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jms;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The replies to the JMS race stage requests, which the {@link JMSRaceStageReplyListener} dispatches to the waiting racers, by the JMS correlation id.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class JMSRaceStageReplies {
+
+    /**
+     * the replies not received yet, by correlation id
+     */
+    private final ConcurrentMap<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a request, before sending it.
+     * @param correlationId the request's correlation id
+     * @return the reply's text, once received
+     */
+    public CompletableFuture<String> expect(String correlationId) {
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        pending.put(correlationId, reply);
+        return reply;
+    }
+
+    /**
+     * Unregisters a request, once its reply is received, or the racer gave up waiting.
+     * @param correlationId the request's correlation id
+     */
+    public void forget(String correlationId) {
+        pending.remove(correlationId);
+    }
+
+    /**
+     * Dispatches a reply to the racer waiting for it.
+     * @param correlationId the reply's correlation id
+     * @param text the reply's text
+     * @return false if no racer waits for the reply, e.g. it timed out
+     */
+    public boolean dispatch(String correlationId, String text) {
+        final CompletableFuture<String> reply = correlationId != null ? pending.remove(correlationId) : null;
+        return reply != null && reply.complete(text);
+    }
+}
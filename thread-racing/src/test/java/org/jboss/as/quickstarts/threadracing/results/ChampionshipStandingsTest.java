@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the championship standings, in particular the eviction of the racers with less points once the standings are full.
+ *
+ * @author Eduardo Martins
+ */
+public class ChampionshipStandingsTest {
+
+    private final ChampionshipStandings standings = new ChampionshipStandings(3);
+
+    @Test
+    public void testRacersWithLessPointsAreEvicted() {
+        standings.add("a", 4).add("b", 3).add("c", 2).add("d", 1);
+        assertNames(standings.getEntryList(10), "a", "b", "c");
+        standings.add("e", 3);
+        assertNames(standings.getEntryList(10), "a", "b", "e");
+        // a racer with more points than the last entry replaces it
+        standings.add("c", 4);
+        assertNames(standings.getEntryList(10), "a", "c", "b");
+    }
+
+    @Test
+    public void testEntriesAreSortedByPointsAndName() {
+        standings.add("b", 2).add("a", 2).add("c", 1).add("c", 2);
+        assertNames(standings.getEntryList(10), "c", "a", "b");
+        assertEquals(3, standings.getEntryList(1).get(0).getPoints());
+    }
+
+    @Test
+    public void testUpdateOnlyKeepsGreaterTotals() {
+        standings.update(Collections.singletonMap("a", 10));
+        // a race which committed before, but updates the standings after
+        standings.update(Collections.singletonMap("a", 6));
+        assertEquals(10, standings.getEntryList(1).get(0).getPoints());
+        standings.update(Collections.singletonMap("a", 14));
+        assertEquals(14, standings.getEntryList(1).get(0).getPoints());
+    }
+
+    private static void assertNames(List<ChampionshipStandings.Entry> entries, String... names) {
+        assertEquals(names.length, entries.size());
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], entries.get(i).getName());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import org.junit.Test;
+
+import javax.batch.runtime.BatchStatus;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the completion signals of the batch race stage, in particular a job execution ending while its racer gives up waiting.
+ *
+ * @author Eduardo Martins
+ */
+public class BatchRaceStageCompletionsTest {
+
+    private final BatchRaceStageCompletions completions = new BatchRaceStageCompletions();
+
+    /**
+     * Asserts that no signal is left for the specified job execution, a new wait does not receive a previous end.
+     * @param executionId
+     */
+    private void assertNoSignal(long executionId) throws InterruptedException {
+        try {
+            completions.await(executionId, 0, TimeUnit.MILLISECONDS);
+            fail("A signal was left for execution " + executionId);
+        } catch (TimeoutException e) {
+            // expected, and removed by the next completion
+            completions.complete(executionId, BatchStatus.COMPLETED);
+        }
+    }
+
+    @Test
+    public void testCompletedBeforeAwait() throws Exception {
+        completions.complete(1, BatchStatus.FAILED);
+        assertEquals(BatchStatus.FAILED, completions.await(1, 1, TimeUnit.SECONDS));
+        assertNoSignal(1);
+    }
+
+    @Test
+    public void testCompletedWhileAwaiting() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<BatchStatus> batchStatus = executor.submit(() -> completions.await(1, 10, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            completions.complete(1, BatchStatus.COMPLETED);
+            assertEquals(BatchStatus.COMPLETED, batchStatus.get(10, TimeUnit.SECONDS));
+            assertNoSignal(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompletedAfterTimeout() throws Exception {
+        try {
+            completions.await(1, 10, TimeUnit.MILLISECONDS);
+            fail("The execution did not end");
+        } catch (TimeoutException e) {
+            // expected
+        }
+        // the listener finds the signal the racer gave up on, and removes it
+        completions.complete(1, BatchStatus.COMPLETED);
+        assertNoSignal(1);
+    }
+
+    @Test
+    public void testCompletionRacesWithTimeout() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (long executionId = 0; executionId < 1000; executionId++) {
+                final long id = executionId;
+                final CountDownLatch start = new CountDownLatch(1);
+                final Future<BatchStatus> batchStatus = executor.submit(() -> {
+                    start.await();
+                    try {
+                        return completions.await(id, 1, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        return null;
+                    }
+                });
+                final Future<?> completion = executor.submit(() -> {
+                    start.await();
+                    completions.complete(id, BatchStatus.COMPLETED);
+                    return null;
+                });
+                start.countDown();
+                completion.get(10, TimeUnit.SECONDS);
+                // the racer either gets the end or times out, never a failure, and no signal is left either way
+                final BatchStatus received = batchStatus.get(10, TimeUnit.SECONDS);
+                if (received != null) {
+                    assertEquals(BatchStatus.COMPLETED, received);
+                }
+                assertNoSignal(id);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
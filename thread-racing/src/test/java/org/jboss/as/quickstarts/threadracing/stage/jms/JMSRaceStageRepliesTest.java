@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jms;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the dispatch of the JMS race stage replies, in particular a reply arriving while its racer gives up waiting.
+ *
+ * @author Eduardo Martins
+ */
+public class JMSRaceStageRepliesTest {
+
+    private final JMSRaceStageReplies replies = new JMSRaceStageReplies();
+
+    @Test
+    public void testReplyIsDispatchedByCorrelationId() throws Exception {
+        final CompletableFuture<String> first = replies.expect("1");
+        final CompletableFuture<String> second = replies.expect("2");
+        assertTrue(replies.dispatch("2", "second"));
+        assertTrue(replies.dispatch("1", "first"));
+        assertEquals("first", first.get(1, TimeUnit.SECONDS));
+        assertEquals("second", second.get(1, TimeUnit.SECONDS));
+        // a reply is only dispatched once, e.g. if redelivered
+        assertFalse(replies.dispatch("1", "first"));
+    }
+
+    @Test
+    public void testUnexpectedReplyIsNotDispatched() {
+        assertFalse(replies.dispatch("1", "unknown"));
+        assertFalse(replies.dispatch(null, "no correlation id"));
+    }
+
+    @Test
+    public void testReplyAfterTimeoutIsNotDispatched() {
+        final CompletableFuture<String> reply = replies.expect("1");
+        // the racer gave up waiting
+        replies.forget("1");
+        assertFalse(replies.dispatch("1", "late"));
+        assertFalse(reply.isDone());
+    }
+
+    @Test
+    public void testReplyRacesWithTimeout() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                final String correlationId = String.valueOf(i);
+                final CompletableFuture<String> reply = replies.expect(correlationId);
+                final CountDownLatch start = new CountDownLatch(1);
+                final Future<?> timeout = executor.submit(() -> {
+                    start.await();
+                    replies.forget(correlationId);
+                    return null;
+                });
+                final Future<Boolean> dispatched = executor.submit(() -> {
+                    start.await();
+                    return replies.dispatch(correlationId, "reply");
+                });
+                start.countDown();
+                timeout.get(10, TimeUnit.SECONDS);
+                // the reply is dispatched if and only if the racer receives it
+                assertEquals(dispatched.get(10, TimeUnit.SECONDS), reply.isDone());
+                // nothing is left to dispatch once the racer forgot the request
+                assertFalse(replies.dispatch(correlationId, "reply"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}